@@ -0,0 +1,60 @@
+package com.distributed.spring_api.bench;
+
+import com.distributed.spring_api.Service.ReservationIntervalIndex;
+import com.distributed.spring_api.Service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemin chaud de createReservation hors base de données : calcul du prix
+ * et pré-contrôle de chevauchement dans l'index en mémoire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    @Param({"100", "10000"})
+    private int voitures;
+
+    // Réservations existantes par voiture
+    @Param({"50"})
+    private int reservationsParVoiture;
+
+    private final LocalDate base = LocalDate.of(2026, 1, 1);
+    private ReservationIntervalIndex index;
+
+    @Setup
+    public void setUp() {
+        // Le repository n'est utilisé qu'au démarrage (load) : on remplit l'index directement
+        index = new ReservationIntervalIndex();
+        long id = 0;
+        for (int v = 0; v < voitures; v++) {
+            for (int r = 0; r < reservationsParVoiture; r++) {
+                LocalDate debut = base.plusDays(r * 7L);
+                index.add(v, ++id, debut, debut.plusDays(3));
+            }
+        }
+    }
+
+    @Benchmark
+    public double calculerTotal() {
+        int offset = ThreadLocalRandom.current().nextInt(365);
+        LocalDate debut = base.plusDays(offset);
+        return ReservationService.calculerTotal(debut, debut.plusDays(4), 350.0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean overlaps() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate debut = base.plusDays(random.nextInt(reservationsParVoiture * 7));
+        return index.overlaps(random.nextInt(voitures), debut, debut.plusDays(2));
+    }
+}
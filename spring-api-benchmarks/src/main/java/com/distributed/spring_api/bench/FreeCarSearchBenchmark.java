@@ -0,0 +1,104 @@
+package com.distributed.spring_api.bench;
+
+import com.distributed.spring_api.Service.VoitureService;
+import com.distributed.spring_api.SpringApiApplication;
+import com.distributed.spring_api.dto.VoitureFilter;
+import com.distributed.spring_api.dto.VoiturePage;
+import com.distributed.spring_api.model.User;
+import com.distributed.spring_api.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche des voitures libres sur une période (VoitureService.searchFree)
+ * sur un parc de 50 000 voitures (paramètre flotte) dans H2 : un tiers a
+ * trois locations confirmées dans les 90 prochains jours. Latences
+ * échantillonnées (p50/p95/p99 dans le rapport JMH).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FreeCarSearchBenchmark {
+
+    private static final String MARQUE = "Fleet";
+
+    @Param({"50000"})
+    private int flotte;
+
+    private ConfigurableApplicationContext context;
+    private VoitureService voitureService;
+    private final VoitureFilter filter = new VoitureFilter();
+    private final LocalDate today = LocalDate.now();
+
+    @Setup
+    public void setUp() {
+        // Application complète (la sécurité web l'exige) sur un port libre et une base H2 en mémoire,
+        // sans traitements de fond. Arguments de ligne de commande : ils priment sur l'application.properties embarqué
+        context = new SpringApplicationBuilder(SpringApiApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;MODE=MSSQLServer",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--payment.outbox.dispatcher.enabled=false",
+                        "--reservation.lifecycle.enabled=false",
+                        "--logging.level.root=WARN");
+        voitureService = context.getBean(VoitureService.class);
+        seedFleet(context.getBean(JdbcTemplate.class), context.getBean(UserRepository.class));
+        filter.setMarque(MARQUE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public VoiturePage searchFree() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate debut = today.plusDays(random.nextInt(90));
+        return voitureService.searchFree(debut, debut.plusDays(1 + random.nextInt(7)), filter, null, null);
+    }
+
+    private void seedFleet(JdbcTemplate jdbc, UserRepository userRepo) {
+        User client = new User();
+        client.setFullName("Client benchmark");
+        client.setEmail("bench@test.ma");
+        client.setPassword("secret");
+        client.setRole("client");
+        client = userRepo.save(client);
+
+        List<Object[]> voitures = new ArrayList<>(flotte);
+        for (int i = 0; i < flotte; i++) {
+            voitures.add(new Object[] {MARQUE, "M" + (i % 50), 200.0 + i % 500, i % 3 == 0 ? "Diesel" : "Essence"});
+        }
+        jdbc.batchUpdate("INSERT INTO Voiture (locateur_id, marque, modele, prix_par_jour, disponibilite, carburant) " +
+                "VALUES (0, ?, ?, ?, true, ?)", voitures);
+
+        List<Integer> ids = jdbc.queryForList("SELECT voiture_id FROM Voiture WHERE marque = ?", Integer.class, MARQUE);
+        List<Object[]> reservations = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += 3) {
+            for (int k = 0; k < 3; k++) {
+                LocalDate debut = today.plusDays(k * 30L + i % 20);
+                reservations.add(new Object[] {client.getId(), ids.get(i), Date.valueOf(debut),
+                        Date.valueOf(debut.plusDays(5))});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO Reservation (client_id, voiture_id, date_debut, date_fin, status, total) " +
+                "VALUES (?, ?, ?, ?, 'CONFIRMED', 1000)", reservations);
+    }
+}
@@ -0,0 +1,112 @@
+package com.distributed.spring_api.bench;
+
+import com.distributed.spring_api.rmi.PaymentLedger;
+import com.distributed.spring_api.rmi.PaymentRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal des autorisations de PaymentServer : ajouts soutenus (une décision
+ * ou un lot de 50 par appel, 8 threads) avec et sans fsync, puis relecture
+ * complète d'un journal de replayEntries autorisations au démarrage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentLedgerBenchmark {
+
+    private static final int WINDOW_BYTES = 64 * 1024 * 1024;
+    private static final int BATCH_SIZE = 50;
+    private static final PaymentLedger.Authorizer AUTHORIZER = (cardNumber, amount) -> amount < 50000;
+
+    @Param({"true", "false"})
+    private boolean fsync;
+
+    private Path path;
+    private PaymentLedger ledger;
+    private final AtomicLong ids = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        path = Files.createTempFile("payment-ledger", ".bin");
+        Files.delete(path);
+        ledger = PaymentLedger.open(path, WINDOW_BYTES, fsync);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ledger.close();
+        Files.deleteIfExists(path);
+    }
+
+    // Identifiants toujours nouveaux : chaque appel autorise et journalise
+    @Benchmark
+    @Threads(8)
+    public boolean append() throws Exception {
+        return ledger.decide("TX-" + ids.incrementAndGet(), "CARD-1234-5678-9012", 1500.0, AUTHORIZER);
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(BATCH_SIZE) // débit en autorisations par seconde
+    public boolean[] appendBatch() throws Exception {
+        List<PaymentRequest> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new PaymentRequest("TX-" + ids.incrementAndGet(), "CARD-1234-5678-9012", 1000.0 + i));
+        }
+        return ledger.decideAll(batch, AUTHORIZER);
+    }
+
+    // Renvoi d'une transaction connue : réponse lue dans l'index, sans écriture
+    @Benchmark
+    @Threads(8)
+    public boolean duplicate() throws Exception {
+        return ledger.decide("TX-DUPLICATE", "CARD-1234-5678-9012", 1500.0, AUTHORIZER);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Journal {
+
+        @Param({"1000000"})
+        private int replayEntries;
+
+        private Path path;
+
+        @Setup
+        public void setUp() throws Exception {
+            path = Files.createTempFile("payment-ledger-replay", ".bin");
+            Files.delete(path);
+            try (PaymentLedger ledger = PaymentLedger.open(path, WINDOW_BYTES, false)) {
+                for (int i = 0; i < replayEntries; i++) {
+                    ledger.decide("RES-" + i, "CARD-1234-5678-9012", i % 60000, AUTHORIZER);
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    // Temps d'ouverture (relecture + index) : fsync sans effet ici, le journal n'est pas modifié
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long replay(Journal journal) throws Exception {
+        try (PaymentLedger ledger = PaymentLedger.open(journal.path, WINDOW_BYTES, false)) {
+            return ledger.getEntries();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.distributed.spring_api.bench;
+
+import com.distributed.spring_api.rmi.IPaymentServiceRemote;
+import com.distributed.spring_api.rmi.PaymentServer;
+import com.distributed.spring_api.rmi.RmiServiceClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.rmi.Naming;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aller-retour RMI vers une banque lancée dans le même processus (registre
+ * local sur un port libre) : stub en cache, Naming.lookup à chaque appel
+ * (ancien comportement des contrôleurs) et RmiServiceClient (échéance + disjoncteur).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RmiRoundTripBenchmark {
+
+    private Registry registry;
+    private PaymentServer server;
+    private String url;
+    private IPaymentServiceRemote cachedStub;
+    private RmiServiceClient<IPaymentServiceRemote> client;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws Exception {
+        // PaymentServer trace chaque paiement sur System.out : on coupe la console pour ne mesurer que RMI
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        registry = LocateRegistry.createRegistry(port);
+        server = new PaymentServer();
+        registry.rebind("PaymentService", server);
+
+        url = "rmi://localhost:" + port + "/PaymentService";
+        cachedStub = (IPaymentServiceRemote) Naming.lookup(url);
+        client = new RmiServiceClient<>("payment", url, IPaymentServiceRemote.class);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        UnicastRemoteObject.unexportObject(server, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public boolean cachedStub() throws Exception {
+        return cachedStub.processPayment("CARD-1234-5678-9012", 1500.0);
+    }
+
+    @Benchmark
+    public boolean lookupEachCall() throws Exception {
+        IPaymentServiceRemote banque = (IPaymentServiceRemote) Naming.lookup(url);
+        return banque.processPayment("CARD-1234-5678-9012", 1500.0);
+    }
+
+    @Benchmark
+    public boolean lookupOnly() throws Exception {
+        return Naming.lookup(url) != null;
+    }
+
+    @Benchmark
+    public boolean managedClient() throws Exception {
+        return client.call(banque -> banque.processPayment("CARD-1234-5678-9012", 1500.0));
+    }
+}
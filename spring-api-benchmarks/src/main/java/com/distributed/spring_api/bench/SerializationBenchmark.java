@@ -0,0 +1,96 @@
+package com.distributed.spring_api.bench;
+
+import com.distributed.spring_api.Service.ReservationService;
+import com.distributed.spring_api.dto.ReservationHistoryItem;
+import com.distributed.spring_api.model.Reservation;
+import com.distributed.spring_api.model.User;
+import com.distributed.spring_api.model.Voiture;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson des réponses les plus volumineuses : page du catalogue
+ * (List<Voiture>), entités Reservation et projection d'historique.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    // 24 = taille de page par défaut du catalogue, 200 = maximum
+    @Param({"24", "200"})
+    private int size;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    private List<Voiture> voitures;
+    private List<Reservation> reservations;
+    private List<ReservationHistoryItem> historique;
+
+    @Setup
+    public void setUp() {
+        User client = new User();
+        client.setId(1L);
+        client.setFullName("Client benchmark");
+        client.setEmail("bench@test.ma");
+        client.setRole("client");
+
+        voitures = new ArrayList<>(size);
+        reservations = new ArrayList<>(size);
+        historique = new ArrayList<>(size);
+        LocalDate base = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < size; i++) {
+            Voiture v = new Voiture();
+            v.setVoitureId(i + 1);
+            v.setLocateurId(1);
+            v.setAgenceNom("Agence Casablanca");
+            v.setAgenceAdresse("Boulevard Zerktouni");
+            v.setAgencePhone("0522000000");
+            v.setMarque("Dacia");
+            v.setModele("Logan " + i);
+            v.setPrixParJour(250 + i);
+            v.setDisponibilite(i % 3 != 0);
+            v.setImageUrl("https://cdn.example.ma/voitures/" + i + ".jpg");
+            v.setCarburant("Diesel");
+            voitures.add(v);
+
+            Reservation r = new Reservation();
+            r.setId((long) i + 1);
+            r.setClient(client);
+            r.setVoiture(v);
+            r.setDateDebut(base.plusDays(i));
+            r.setDateFin(base.plusDays(i + 3));
+            r.setTotal(ReservationService.calculerTotal(base.plusDays(i), base.plusDays(i + 3), v.getPrixParJour()));
+            r.setStatus("CONFIRMED");
+            reservations.add(r);
+
+            historique.add(new ReservationHistoryItem(r.getId(), r.getDateDebut(), r.getDateFin(), r.getStatus(),
+                    r.getTotal(), LocalDateTime.of(2026, 1, 1, 10, 0), v.getVoitureId(), v.getMarque(),
+                    v.getModele(), v.getAgenceNom(), v.getImageUrl(), "PAID"));
+        }
+    }
+
+    @Benchmark
+    public byte[] voitures() {
+        return mapper.writeValueAsBytes(voitures);
+    }
+
+    @Benchmark
+    public byte[] reservations() {
+        return mapper.writeValueAsBytes(reservations);
+    }
+
+    @Benchmark
+    public byte[] historique() {
+        return mapper.writeValueAsBytes(historique);
+    }
+}
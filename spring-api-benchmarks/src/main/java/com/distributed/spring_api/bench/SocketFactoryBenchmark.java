@@ -0,0 +1,84 @@
+package com.distributed.spring_api.bench;
+
+import com.distributed.spring_api.rmi.IPaymentServiceRemote;
+import com.distributed.spring_api.rmi.PaymentRequest;
+import com.distributed.spring_api.rmi.PaymentServer;
+import com.distributed.spring_api.rmi.TunedSocketFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.rmi.Naming;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aller-retour processPayment / processPayments selon la fabrique de sockets
+ * d'export : sockets par défaut, TunedSocketFactory, TunedSocketFactory + compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SocketFactoryBenchmark {
+
+    @Param({"default", "tuned", "tuned-compressed"})
+    private String sockets;
+
+    @Param({"50"})
+    private int batchSize;
+
+    private Registry registry;
+    private PaymentServer server;
+    private IPaymentServiceRemote banque;
+    private List<PaymentRequest> batch;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws Exception {
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        registry = LocateRegistry.createRegistry(port);
+        server = switch (sockets) {
+            case "tuned" -> new PaymentServer(0, new TunedSocketFactory(true, true, 0, 0, 2000, false, null));
+            case "tuned-compressed" -> new PaymentServer(0, new TunedSocketFactory(true, true, 0, 0, 2000, true, null));
+            default -> new PaymentServer();
+        };
+        registry.rebind("PaymentService", server);
+        banque = (IPaymentServiceRemote) Naming.lookup("rmi://localhost:" + port + "/PaymentService");
+
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new PaymentRequest("CARD-1234-5678-" + (9000 + i), 1000.0 + i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        UnicastRemoteObject.unexportObject(server, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public boolean single() throws Exception {
+        return banque.processPayment("CARD-1234-5678-9012", 1500.0);
+    }
+
+    @Benchmark
+    public boolean[] batch() throws Exception {
+        return banque.processPayments(batch);
+    }
+}
@@ -0,0 +1,48 @@
+package com.distributed.spring_api.Controller;
+
+import com.distributed.spring_api.Service.CitizenVerificationService;
+import com.distributed.spring_api.cache.TtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/verification-cache")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminCacheController {
+
+    @Autowired
+    private CitizenVerificationService verificationService;
+
+    // GET http://localhost:2000/api/admin/verification-cache/stats
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        TtlCache<String, Boolean> cache = verificationService.getCache();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("hits", cache.getHits());
+        stats.put("misses", cache.getMisses());
+        stats.put("hitRatio", cache.getHitRatio());
+        stats.put("missRatio", cache.getMissRatio());
+        return stats;
+    }
+
+    // DELETE http://localhost:2000/api/admin/verification-cache/AB123456
+    @DeleteMapping("/{cin}")
+    public ResponseEntity<?> invalidate(@PathVariable String cin) {
+        if (verificationService.invalidate(cin)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // DELETE http://localhost:2000/api/admin/verification-cache
+    @DeleteMapping
+    public ResponseEntity<?> invalidateAll() {
+        verificationService.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.distributed.spring_api.Controller;
+
+import com.distributed.spring_api.Service.PaiementExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/paiements")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminPaiementExportController {
+
+    @Autowired
+    private PaiementExportService exportService;
+
+    // Export admin en flux continu (mémoire constante)
+    // GET http://localhost:2000/api/admin/paiements/export?format=csv&from=2025-01-01&to=2025-12-31&statut=PAID
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                       @RequestParam(required = false) String statut,
+                       HttpServletResponse response) throws IOException {
+        PaiementExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? PaiementExportService.Format.CSV
+                : PaiementExportService.Format.NDJSON;
+        if (exportFormat == PaiementExportService.Format.CSV) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"paiements.csv\"");
+        } else {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"paiements.ndjson\"");
+        }
+        exportService.export(from, to, statut, exportFormat, response.getOutputStream());
+    }
+}
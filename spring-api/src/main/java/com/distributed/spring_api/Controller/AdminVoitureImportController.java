@@ -0,0 +1,33 @@
+package com.distributed.spring_api.Controller;
+
+import com.distributed.spring_api.Service.VoitureImportService;
+import com.distributed.spring_api.dto.VoitureImportReport;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/voitures")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AdminVoitureImportController {
+
+    @Autowired
+    private VoitureImportService importService;
+
+    // Import de flotte en flux continu : le corps est lu au fil de l'eau, jamais chargé en entier
+    // POST http://localhost:2000/api/admin/voitures/import   (Content-Type: text/csv, application/json ou application/x-ndjson)
+    // POST http://localhost:2000/api/admin/voitures/import?format=csv
+    @PostMapping("/import")
+    public ResponseEntity<?> importFleet(@RequestParam(required = false) String format,
+                                         HttpServletRequest request) throws IOException {
+        VoitureImportService.Format importFormat = VoitureImportService.Format.of(format, request.getContentType());
+        if (importFormat == null) {
+            return ResponseEntity.badRequest().body("Format inconnu : utilisez csv ou json.");
+        }
+        VoitureImportReport report = importService.importFleet(request.getInputStream(), importFormat);
+        return ResponseEntity.ok(report);
+    }
+}
@@ -1,19 +1,23 @@
 package com.distributed.spring_api.Controller;
 
+import com.distributed.spring_api.Service.CitizenVerificationService;
 import com.distributed.spring_api.dto.LoginRequest;
 import com.distributed.spring_api.dto.SignupRequest;
+import com.distributed.spring_api.metrics.BookingMetrics;
 import com.distributed.spring_api.model.User;
 import com.distributed.spring_api.repository.UserRepository;
 import com.distributed.spring_api.rmi.IVerificationServiceRemote; // <--- 1. IMPORT RMI
+import com.distributed.spring_api.rmi.RmiServiceCluster;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.rmi.Naming; // <--- 2. IMPORT NAMING
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,56 +27,72 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RmiServiceCluster<IVerificationServiceRemote> policeCluster;
+
+    @Autowired
+    private CitizenVerificationService verificationService;
+
+    @Autowired
+    private BookingMetrics metrics;
+
+    @Autowired
+    private ExecutorService rmiAsyncExecutor;
+
     // --- INSCRIPTION (SIGN UP) ---
+    // Asynchrone : le thread de la requête est libéré pendant la vérification Police.
+    // Aucun accès base sur ce thread : avec open-in-view, il garderait une connexion
+    // jusqu'à la réponse pendant que saveUser en demande une autre (pool épuisé en charge)
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@RequestBody SignupRequest request) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody SignupRequest request) {
+        return CompletableFuture.supplyAsync(() -> userRepository.existsByEmail(request.getEmail()), rmiAsyncExecutor)
+                .thenCompose(exists -> exists
+                        ? CompletableFuture.completedFuture(
+                                ResponseEntity.badRequest().body("Erreur: Cet email est déjà utilisé !"))
+                        : verifyAndSave(request));
+    }
 
-        // 1. Vérifier si l'email existe déjà
-        if (userRepository.existsByEmail(request.getEmail())) {
-            return ResponseEntity.badRequest().body("Erreur: Cet email est déjà utilisé !");
-        }
+    private CompletableFuture<ResponseEntity<?>> verifyAndSave(SignupRequest request) {
 
         // =================================================================
         // 🚨 DÉBUT INTÉGRATION RMI (Vérification Police)
         // =================================================================
 
-        // On suppose que votre SignupRequest a un champ 'cin' (ex: request.getCin())
         // Si le rôle est 'client', on vérifie son casier judiciaire
-        if ("client".equalsIgnoreCase(request.getRole())) {
-            try {
-                System.out.println("👮 Connexion au serveur Police (RMI port 1100)...");
-
-                // 1. Connexion au serveur distant
-                IVerificationServiceRemote policeService = (IVerificationServiceRemote) Naming
-                        .lookup("rmi://localhost:1100/PoliceService");
-
-                // 2. Appel de la méthode de vérification
-                // (Assurez-vous d'avoir ajouté le champ 'cin' dans SignupRequest.java)
-                String cinClient = request.getCin(); // <--- Champ à ajouter dans le DTO
-                boolean isClean = policeService.verifierCitoyen(cinClient, "PERMIS-CHECK");
-
-                // 3. Si le citoyen est blacklisté, on REFUSE l'inscription
-                if (!isClean) {
-                    System.out.println("⛔ ALERTE : Citoyen blacklisté tenté de s'inscrire !");
-                    return ResponseEntity.status(403)
-                            .body("Inscription refusée : Vérification administrative échouée (Service Police).");
-                }
-
-                System.out.println("✅ Vérification Police OK.");
-
-            } catch (Exception e) {
-                // Si le serveur RMI est éteint, on affiche l'erreur
-                System.err.println("⚠️ Erreur RMI Police : " + e.getMessage());
-                // Choix : Soit on bloque (plus sécurisé), soit on laisse passer (mode dégradé)
-                // return ResponseEntity.internalServerError().body("Service de vérification
-                // indisponible.");
-            }
+        if (!"client".equalsIgnoreCase(request.getRole())) {
+            return CompletableFuture.completedFuture(saveUser(request));
         }
+
+        // Verdict mis en cache par CIN : une nouvelle soumission ne rappelle pas le serveur
+        return verificationService.verifierCitoyen(request.getCin())
+                .handle((isClean, error) -> {
+                    if (error != null) {
+                        // Serveur éteint, délai dépassé ou circuit ouvert (voir rmi.client.calls)
+                        // Choix configurable (rmi.police.unavailable-policy) : on bloque ou on laisse passer
+                        if (!policeCluster.getUnavailablePolicy().allows()) {
+                            metrics.policeVerification("unavailable_refused");
+                            return ResponseEntity.status(503).body("Service de vérification indisponible.");
+                        }
+                        metrics.policeVerification("unavailable_accepted");
+                        return saveUser(request);
+                    }
+
+                    // 2. Si le citoyen est blacklisté, on REFUSE l'inscription
+                    if (!isClean) {
+                        metrics.policeVerification("blacklisted");
+                        return ResponseEntity.status(403)
+                                .body("Inscription refusée : Vérification administrative échouée (Service Police).");
+                    }
+                    metrics.policeVerification("clean");
+                    return saveUser(request);
+                });
         // =================================================================
         // 🚨 FIN INTÉGRATION RMI
         // =================================================================
+    }
 
-        // 2. Créer l'utilisateur (Si RMI est OK)
+    // Créer l'utilisateur (si la vérification RMI est OK)
+    private ResponseEntity<?> saveUser(SignupRequest request) {
         User user = new User();
         user.setFullName(request.getFullName());
         user.setEmail(request.getEmail());
@@ -83,7 +103,6 @@ public class AuthController {
         // On peut aussi stocker le CIN si vous l'avez ajouté au modèle User
         // user.setCin(request.getCin());
 
-        // 3. Sauvegarder
         userRepository.save(user);
 
         return ResponseEntity.ok("Utilisateur enregistré avec succès !");
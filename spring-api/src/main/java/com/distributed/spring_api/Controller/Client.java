@@ -4,13 +4,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.distributed.spring_api.Service.VoituresDes;
 import com.distributed.spring_api.Service.VoitureService;
+import com.distributed.spring_api.dto.VoitureFilter;
+import com.distributed.spring_api.dto.VoiturePage;
 import com.distributed.spring_api.model.Voiture;
 
 import org.springframework.ui.Model;
 
+import java.util.Optional;
+
 @Controller
 public class Client {
 
@@ -18,8 +25,27 @@ public class Client {
     private VoitureService voitureService;
 
     @GetMapping("/")
-    public String home(Model model) {
-        model.addAttribute("voitures", voitureService.getAllVoitures());
+    public String home(VoitureFilter filter,
+                       @RequestParam(required = false) String after,
+                       WebRequest request,
+                       Model model) {
+        if (request.checkNotModified(voitureService.getCatalogETag())) {
+            return null;
+        }
+        // Même pagination par curseur que /api/voitures
+        VoiturePage page = voitureService.getPage(filter, null, after, null);
+        model.addAttribute("voitures", page.getItems());
+        // Lien "page suivante" : mêmes filtres que la page courante, seul le curseur change
+        if (page.getNext() != null) {
+            model.addAttribute("nextUrl", UriComponentsBuilder.fromPath("/")
+                    .queryParamIfPresent("marque", Optional.ofNullable(filter.getMarque()))
+                    .queryParamIfPresent("carburant", Optional.ofNullable(filter.getCarburant()))
+                    .queryParamIfPresent("agenceNom", Optional.ofNullable(filter.getAgenceNom()))
+                    .queryParamIfPresent("prixMin", Optional.ofNullable(filter.getPrixMin()))
+                    .queryParamIfPresent("prixMax", Optional.ofNullable(filter.getPrixMax()))
+                    .queryParam("after", page.getNext())
+                    .encode().build().toUriString());
+        }
         return "home";
     }
 
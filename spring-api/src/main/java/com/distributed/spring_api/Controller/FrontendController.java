@@ -6,7 +6,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class FrontendController {
 
-    @GetMapping(value = { "/", "/catalogue", "/profile", "/bookings", "/car/**" })
+    @GetMapping(value = { "/catalogue", "/profile", "/bookings", "/car/**" })
     public String forwardReact() {
         return "forward:/index.html";
     }
@@ -1,6 +1,6 @@
 package com.distributed.spring_api.Controller;
 
-import com.distributed.spring_api.model.Paiement;
+import com.distributed.spring_api.dto.PaiementView;
 import com.distributed.spring_api.Service.PaiementService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,14 +18,14 @@ public class PaiementController {
 
     // GET http://localhost:2000/api/paiements
     @GetMapping
-    public List<Paiement> getAll() {
+    public List<PaiementView> getAll() {
         return paiementService.getAllPaiements();
     }
 
     // GET http://localhost:2000/api/paiements/reservation/5
     @GetMapping("/reservation/{resId}")
     public ResponseEntity<?> getByReservation(@PathVariable Long resId) {
-        Paiement p = paiementService.getPaiementByReservationId(resId);
+        PaiementView p = paiementService.getPaiementByReservationId(resId);
         if (p != null) {
             return ResponseEntity.ok(p);
         }
@@ -2,11 +2,14 @@ package com.distributed.spring_api.Controller;
 
 import com.distributed.spring_api.dto.ReservationRequest;
 import com.distributed.spring_api.model.Reservation;
+import com.distributed.spring_api.Service.IdempotencyService;
 import com.distributed.spring_api.Service.ReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/reservations")
 @CrossOrigin(origins = "http://localhost:5173")
@@ -15,19 +18,85 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    /**
+     * Avec un en-tête Idempotency-Key, une nouvelle tentative (réseau mobile
+     * instable) reçoit la réponse d'origine sans nouvelle réservation ni
+     * nouvel appel à la banque. 409 si la première tentative est encore en
+     * cours, 422 si la clé est réutilisée avec un autre corps.
+     */
     @PostMapping
-    public ResponseEntity<?> createReservation(@RequestBody ReservationRequest request) {
+    public ResponseEntity<?> createReservation(@RequestBody ReservationRequest request,
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                               String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return create(request);
+        }
+        if (idempotencyKey.length() > 100) {
+            return ResponseEntity.badRequest().body("Idempotency-Key trop longue (100 caractères maximum).");
+        }
+
+        String requestHash = idempotencyService.hash(request);
+        IdempotencyService.StoredResponse stored = idempotencyService.find(idempotencyKey);
+        if (stored == null && idempotencyService.claim(idempotencyKey, requestHash)) {
+            ResponseEntity<?> response;
+            try {
+                response = create(request);
+            } catch (RuntimeException e) {
+                idempotencyService.release(idempotencyKey);
+                throw e;
+            }
+            if (response.getStatusCode().is2xxSuccessful()) {
+                idempotencyService.complete(idempotencyKey, requestHash, response);
+            } else {
+                // Refus : la transaction a été annulée, rien à protéger -> la clé peut resservir
+                idempotencyService.release(idempotencyKey);
+            }
+            return response;
+        }
+
+        if (stored == null) {
+            stored = idempotencyService.find(idempotencyKey); // prise entre-temps par une requête concurrente
+        }
+        if (stored == null || stored.inProgress()) {
+            return ResponseEntity.status(409).body("Une requête avec cette Idempotency-Key est en cours.");
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            return ResponseEntity.status(422).body("Idempotency-Key déjà utilisée pour une autre requête.");
+        }
+        return stored.toResponse();
+    }
+
+    private ResponseEntity<?> create(ReservationRequest request) {
         try {
+            // 202 : la réservation est enregistrée (PENDING), le paiement RMI suit en arrière-plan
             Reservation newRes = reservationService.createReservation(request);
-            return ResponseEntity.ok(newRes);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reservations/" + newRes.getId()))
+                    .body(reservationService.toStatusResponse(newRes, "PENDING"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // Suivi du statut (PENDING -> CONFIRMED / CANCELLED)
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getReservationStatus(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(reservationService.getReservationStatus(id));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // GET http://localhost:2000/api/reservations/client/3?size=20&before=120
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<?> getClientReservations(@PathVariable Long clientId) {
-        return ResponseEntity.ok(reservationService.getReservationsByClient(clientId));
+    public ResponseEntity<?> getClientReservations(@PathVariable Long clientId,
+                                                   @RequestParam(required = false) String before,
+                                                   @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(reservationService.getReservationHistory(clientId, before, size));
     }
 
     @PutMapping("/{id}/cancel")
@@ -0,0 +1,52 @@
+package com.distributed.spring_api.Controller;
+
+import com.distributed.spring_api.rmi.RmiHealthChecker;
+import com.distributed.spring_api.rmi.RmiServiceClient;
+import com.distributed.spring_api.rmi.RmiServiceCluster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rmi")
+@CrossOrigin(origins = "http://localhost:5173")
+public class RmiStatusController {
+
+    @Autowired
+    private RmiHealthChecker healthChecker;
+
+    // GET http://localhost:2000/api/rmi/stats
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (RmiServiceCluster<?> cluster : healthChecker.getClusters()) {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("strategy", cluster.getStrategy());
+            c.put("unavailablePolicy", cluster.getUnavailablePolicy());
+            List<Map<String, Object>> nodes = new ArrayList<>();
+            for (RmiServiceCluster.Node<?> node : cluster.getNodes()) {
+                RmiServiceClient<?> client = node.getClient();
+                Map<String, Object> s = new LinkedHashMap<>();
+                s.put("name", client.getName());
+                s.put("url", client.getUrl());
+                s.put("healthy", client.isHealthy());
+                s.put("ejected", node.isEjected());
+                s.put("circuit", client.getCircuitState());
+                s.put("outstanding", node.getOutstanding());
+                s.put("calls", node.getCalls());
+                s.put("failures", node.getFailures());
+                s.put("lookups", client.getLookupCount());
+                s.put("reconnects", client.getReconnectCount());
+                s.put("failedLookups", client.getFailedLookupCount());
+                nodes.add(s);
+            }
+            c.put("nodes", nodes);
+            stats.put(cluster.getName(), c);
+        }
+        return stats;
+    }
+}
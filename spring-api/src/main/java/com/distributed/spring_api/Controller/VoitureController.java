@@ -1,11 +1,16 @@
 package com.distributed.spring_api.Controller;
 
+import com.distributed.spring_api.dto.VoitureFilter;
+import com.distributed.spring_api.dto.VoiturePage;
 import com.distributed.spring_api.model.Voiture;
 import com.distributed.spring_api.Service.VoitureService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/voitures")
@@ -15,20 +20,51 @@ public class VoitureController {
     @Autowired
     private VoitureService voitureService;
 
+    // GET http://localhost:2000/api/voitures?marque=Dacia&prixMax=400&size=24&after=120
     @GetMapping
-    public List<Voiture> getAll() {
-        return voitureService.getAllVoitures();
+    public VoiturePage getAll(VoitureFilter filter,
+                              @RequestParam(required = false) String after,
+                              @RequestParam(required = false) Integer size,
+                              WebRequest request) {
+        // 304 Not Modified si le catalogue n'a pas changé : ni requête SQL, ni sérialisation
+        if (request.checkNotModified(voitureService.getCatalogETag())) {
+            return null;
+        }
+        return voitureService.getPage(filter, null, after, size);
     }
 
     // GET http://localhost:2000/api/voitures/disponibles
     @GetMapping("/disponibles")
-    public List<Voiture> getDisponibles() {
-        return voitureService.getVoituresDisponibles();
+    public VoiturePage getDisponibles(VoitureFilter filter,
+                                      @RequestParam(required = false) String after,
+                                      @RequestParam(required = false) Integer size,
+                                      WebRequest request) {
+        if (request.checkNotModified(voitureService.getCatalogETag())) {
+            return null;
+        }
+        return voitureService.getPage(filter, true, after, size);
+    }
+
+    // Voitures libres entre deux dates
+    // GET http://localhost:2000/api/voitures/search?debut=2025-07-01&fin=2025-07-05&carburant=Diesel
+    @GetMapping("/search")
+    public ResponseEntity<?> searchFree(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate debut,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fin,
+                                        VoitureFilter filter,
+                                        @RequestParam(required = false) String after,
+                                        @RequestParam(required = false) Integer size) {
+        if (fin.isBefore(debut)) {
+            return ResponseEntity.badRequest().body("La date de fin doit être après la date de début.");
+        }
+        return ResponseEntity.ok(voitureService.searchFree(debut, fin, filter, after, size));
     }
 
     // GET http://localhost:2000/api/voitures/1
     @GetMapping("/{id}")
-    public Voiture getById(@PathVariable int id) {
+    public Voiture getById(@PathVariable int id, WebRequest request) {
+        if (request.checkNotModified(voitureService.getCatalogETag())) {
+            return null;
+        }
         return voitureService.getVoitureById(id);
     }
 }
\ No newline at end of file
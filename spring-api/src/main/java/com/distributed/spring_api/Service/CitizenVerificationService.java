@@ -0,0 +1,78 @@
+package com.distributed.spring_api.Service;
+
+import com.distributed.spring_api.cache.TtlCache;
+import com.distributed.spring_api.rmi.AsyncRemoteService;
+import com.distributed.spring_api.rmi.IVerificationServiceRemote;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Vérification police avec cache des verdicts par CIN : les inscriptions
+ * répétées (double soumission, nouvel essai) ne rappellent pas GovernmentServer.
+ * Les verdicts positifs et négatifs ont des durées de vie distinctes ; une panne
+ * du service n'est jamais mise en cache.
+ */
+@Service
+public class CitizenVerificationService {
+
+    @Autowired
+    private AsyncRemoteService<IVerificationServiceRemote> policeAsync;
+
+    @Value("${verification.cache.positive-ttl-ms:3600000}")
+    private long positiveTtlMs;
+
+    @Value("${verification.cache.negative-ttl-ms:300000}")
+    private long negativeTtlMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final TtlCache<String, Boolean> verdicts;
+
+    public CitizenVerificationService(@Value("${verification.cache.max-size:10000}") int maxSize) {
+        this.verdicts = new TtlCache<>(maxSize);
+    }
+
+    // cache.gets{result=hit|miss} et cache.size, comme les caches Spring instrumentés
+    @PostConstruct
+    public void bindMetrics() {
+        FunctionCounter.builder("cache.gets", verdicts, TtlCache::getHits)
+                .tag("cache", "verification").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", verdicts, TtlCache::getMisses)
+                .tag("cache", "verification").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", verdicts, TtlCache::size)
+                .tag("cache", "verification").register(meterRegistry);
+    }
+
+    // Asynchrone : en cas d'échec, le future porte la RemoteException (panne, délai, circuit ouvert)
+    public CompletableFuture<Boolean> verifierCitoyen(String cin) {
+        Boolean cached = verdicts.get(cin);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return policeAsync.call("verifierCitoyen", police -> police.verifierCitoyen(cin, "PERMIS-CHECK"))
+                .thenApply(isClean -> {
+                    verdicts.put(cin, isClean, isClean ? positiveTtlMs : negativeTtlMs);
+                    return isClean;
+                });
+    }
+
+    public boolean invalidate(String cin) {
+        return verdicts.invalidate(cin);
+    }
+
+    public void invalidateAll() {
+        verdicts.invalidateAll();
+    }
+
+    public TtlCache<String, Boolean> getCache() {
+        return verdicts;
+    }
+}
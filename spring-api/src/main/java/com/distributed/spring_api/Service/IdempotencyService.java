@@ -0,0 +1,167 @@
+package com.distributed.spring_api.Service;
+
+import com.distributed.spring_api.cache.TtlCache;
+import com.distributed.spring_api.model.IdempotencyRecord;
+import com.distributed.spring_api.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Clés d'idempotence (en-tête Idempotency-Key) : la première réponse réussie
+ * est mémorisée et rejouée telle quelle pour toute nouvelle tentative, sans
+ * recréer de réservation ni rappeler la banque.
+ *
+ * Deux niveaux : un cache mémoire (rejeu en quelques microsecondes sur ce
+ * nœud) et la table IdempotencyRecord, qui fait foi entre nœuds et après un
+ * redémarrage. La clé est réservée (IN_PROGRESS) par un INSERT avant le
+ * traitement : une tentative concurrente se heurte à la clé primaire.
+ *
+ * La réservation n'est qu'un bail court (idempotency.lease-ms) : si le nœud
+ * meurt ou si complete() échoue, la clé redevient utilisable à la fin du bail
+ * au lieu de répondre 409 jusqu'à la purge. Une clé expirée mais pas encore
+ * purgée est reprise par un UPDATE conditionnel.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    // Doit dépasser la durée d'un POST /api/reservations (le paiement RMI est asynchrone)
+    @Value("${idempotency.lease-ms:30000}")
+    private long leaseMs;
+
+    private final TtlCache<String, StoredResponse> memory;
+
+    public IdempotencyService(@Value("${idempotency.cache.max-size:10000}") int maxSize) {
+        this.memory = new TtlCache<>(maxSize);
+    }
+
+    // null = clé inconnue (ou expirée)
+    public StoredResponse find(String key) {
+        StoredResponse cached = memory.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        IdempotencyRecord record = repository.findById(key).orElse(null);
+        if (record == null || record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return null;
+        }
+        StoredResponse stored = new StoredResponse(record.getRequestHash(), "IN_PROGRESS".equals(record.getStatus()),
+                record.getHttpStatus() == null ? 0 : record.getHttpStatus(), record.getLocation(),
+                record.getContentType(), record.getResponseBody());
+        if (!stored.inProgress()) {
+            long remainingMs = Duration.between(LocalDateTime.now(), record.getExpiresAt()).toMillis();
+            memory.put(key, stored, remainingMs);
+        }
+        return stored;
+    }
+
+    // Réserve la clé ; faux si une autre requête la détient encore
+    public boolean claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setRequestHash(requestHash);
+        record.setStatus("IN_PROGRESS");
+        record.setCreatedAt(now);
+        record.setExpiresAt(leaseUntil);
+        try {
+            repository.saveAndFlush(record);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Ligne existante : reprise seulement si elle a expiré
+            memory.invalidate(key);
+            return repository.reclaimExpired(key, requestHash, now, leaseUntil) == 1;
+        }
+    }
+
+    /**
+     * Mémorise la réponse réussie (corps sérialisé en JSON) pour toute la durée
+     * idempotency.ttl-ms. Un échec n'empêche pas de renvoyer la réponse : la
+     * clé reste IN_PROGRESS jusqu'à la fin du bail.
+     */
+    public void complete(String key, String requestHash, ResponseEntity<?> response) {
+        try {
+            URI location = response.getHeaders().getLocation();
+            StoredResponse stored = new StoredResponse(requestHash, false, response.getStatusCode().value(),
+                    location == null ? null : location.toString(), MediaType.APPLICATION_JSON_VALUE,
+                    jsonMapper.writeValueAsString(response.getBody()));
+            int updated = repository.complete(key, requestHash, stored.httpStatus(), stored.location(),
+                    stored.contentType(), stored.body(), LocalDateTime.now().plus(Duration.ofMillis(ttlMs)));
+            if (updated == 1) {
+                memory.put(key, stored, ttlMs);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Réponse non mémorisée pour la clé {} (libérée à la fin du bail)", key, e);
+        }
+    }
+
+    // Échec sans effet (rien n'a été créé) : la clé est libérée pour une nouvelle tentative
+    public void release(String key) {
+        repository.deleteById(key);
+    }
+
+    public String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jsonMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        repository.deleteExpired(LocalDateTime.now());
+    }
+
+    public TtlCache<String, StoredResponse> getMemory() {
+        return memory;
+    }
+
+    public record StoredResponse(String requestHash, boolean inProgress, int httpStatus,
+                                 String location, String contentType, String body) {
+
+        public ResponseEntity<String> toResponse() {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(httpStatus)
+                    .header(HEADER + "-Replayed", "true");
+            if (location != null) {
+                builder.header(HttpHeaders.LOCATION, location);
+            }
+            if (contentType != null) {
+                builder.contentType(MediaType.parseMediaType(contentType));
+            }
+            return builder.body(body);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.distributed.spring_api.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export des paiements ligne par ligne (NDJSON ou CSV) : le ResultSet est lu
+ * par paquets de fetchSize et chaque ligne est écrite aussitôt dans la réponse.
+ * Aucune entité n'est chargée, la mémoire utilisée ne dépend pas du volume.
+ */
+@Service
+public class PaiementExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER =
+            "paiement_id,reservation_id,client_id,voiture_id,montant,statut,date_paiement,reservation_status";
+
+    private final JdbcTemplate jdbc;
+
+    public PaiementExportService(DataSource dataSource,
+                                 @Value("${paiement.export.fetch-size:500}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+    }
+
+    public void export(LocalDate from, LocalDate to, String statut, Format format, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT p.paiement_id, p.reservation_id, r.client_id, r.voiture_id, p.montant, p.statut, " +
+                "p.date_paiement, r.status FROM Paiement p " +
+                "JOIN Reservation r ON r.reservation_id = p.reservation_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND p.date_paiement >= ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND p.date_paiement < ?");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        if (statut != null && !statut.isBlank()) {
+            sql.append(" AND p.statut = ?");
+            args.add(statut);
+        }
+        sql.append(" ORDER BY p.paiement_id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try {
+            jdbc.query(sql.toString(), rs -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsv(rs, writer);
+                    } else {
+                        writeNdjson(rs, writer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // client déconnecté : on arrête la lecture
+                }
+            }, args.toArray());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(ResultSet rs, Writer w) throws SQLException, IOException {
+        w.write("{\"paiement_id\":");
+        w.write(String.valueOf(rs.getLong(1)));
+        w.write(",\"reservation_id\":");
+        w.write(String.valueOf(rs.getLong(2)));
+        w.write(",\"client_id\":");
+        w.write(String.valueOf(rs.getLong(3)));
+        w.write(",\"voiture_id\":");
+        w.write(String.valueOf(rs.getInt(4)));
+        w.write(",\"montant\":");
+        w.write(String.valueOf(rs.getDouble(5)));
+        w.write(",\"statut\":");
+        writeJsonString(rs.getString(6), w);
+        w.write(",\"date_paiement\":");
+        Timestamp date = rs.getTimestamp(7);
+        writeJsonString(date == null ? null : date.toLocalDateTime().toString(), w);
+        w.write(",\"reservation_status\":");
+        writeJsonString(rs.getString(8), w);
+        w.write("}\n");
+    }
+
+    private void writeCsv(ResultSet rs, Writer w) throws SQLException, IOException {
+        w.write(String.valueOf(rs.getLong(1)));
+        w.write(',');
+        w.write(String.valueOf(rs.getLong(2)));
+        w.write(',');
+        w.write(String.valueOf(rs.getLong(3)));
+        w.write(',');
+        w.write(String.valueOf(rs.getInt(4)));
+        w.write(',');
+        w.write(String.valueOf(rs.getDouble(5)));
+        w.write(',');
+        writeCsvField(rs.getString(6), w);
+        w.write(',');
+        Timestamp date = rs.getTimestamp(7);
+        writeCsvField(date == null ? null : date.toLocalDateTime().toString(), w);
+        w.write(',');
+        writeCsvField(rs.getString(8), w);
+        w.write('\n');
+    }
+
+    private static void writeJsonString(String value, Writer w) throws IOException {
+        if (value == null) {
+            w.write("null");
+            return;
+        }
+        w.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> w.write("\\\"");
+                case '\\' -> w.write("\\\\");
+                case '\n' -> w.write("\\n");
+                case '\r' -> w.write("\\r");
+                case '\t' -> w.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        w.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        w.write(c);
+                    }
+                }
+            }
+        }
+        w.write('"');
+    }
+
+    private static void writeCsvField(String value, Writer w) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            w.write(value);
+            return;
+        }
+        w.write('"');
+        w.write(value.replace("\"", "\"\""));
+        w.write('"');
+    }
+}
@@ -1,9 +1,11 @@
 package com.distributed.spring_api.Service;
 
+import com.distributed.spring_api.dto.PaiementView;
 import com.distributed.spring_api.model.Paiement;
 import com.distributed.spring_api.repository.PaiementRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,13 +16,16 @@ public class PaiementService {
     private PaiementRepository paiementRepo;
 
     // Récupérer tous les paiements (Pour un tableau de bord Admin)
-    public List<Paiement> getAllPaiements() {
-        return paiementRepo.findAll();
+    // (Pour les gros volumes, voir l'export en flux PaiementExportService)
+    @Transactional(readOnly = true)
+    public List<PaiementView> getAllPaiements() {
+        return paiementRepo.findAllViews();
     }
 
     // Récupérer le paiement d'une réservation spécifique
-    public Paiement getPaiementByReservationId(Long reservationId) {
-        return paiementRepo.findByReservation_Id(reservationId)
+    @Transactional(readOnly = true)
+    public PaiementView getPaiementByReservationId(Long reservationId) {
+        return paiementRepo.findViewByReservationId(reservationId)
                 .orElse(null);
     }
 
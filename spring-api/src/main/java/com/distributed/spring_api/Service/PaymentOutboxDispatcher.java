@@ -0,0 +1,241 @@
+package com.distributed.spring_api.Service;
+
+import com.distributed.spring_api.metrics.BookingMetrics;
+import com.distributed.spring_api.model.PaymentOutbox;
+import com.distributed.spring_api.repository.PaymentOutboxRepository;
+import com.distributed.spring_api.rmi.AsyncRemoteService;
+import com.distributed.spring_api.rmi.IPaymentServiceRemote;
+import com.distributed.spring_api.rmi.PaymentRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Phase 2 de la réservation : vide la table PaymentOutbox vers la banque.
+ *
+ * Toutes les payment.outbox.poll-ms, les lignes dues sont prises par lots de
+ * payment.outbox.batch-size (un seul appel processPayments par lot), avec au plus
+ * payment.outbox.max-in-flight lots en cours. La prise pose un bail
+ * (payment.outbox.lease-ms) : si ce nœud meurt avant d'appliquer le résultat,
+ * la ligne redevient due pour un autre nœud. Chaque demande porte l'identifiant
+ * de transaction RES-<reservationId>-<création de la ligne> : la banque répond
+ * à un renvoi avec la décision déjà journalisée (voir PaymentLedger), sans
+ * débiter deux fois. L'horodatage distingue deux bases successives, dont les
+ * identifiants IDENTITY repartent de 1.
+ *
+ * Le journal est propre à chaque PaymentServer : chaque transaction est donc
+ * épinglée sur son serveur attitré (hachage de rendez-vous, voir
+ * RmiServiceCluster) et un lot est découpé en un appel par serveur. Limite :
+ * si ce serveur est injoignable ou retiré du cluster, la transaction part vers
+ * un autre qui ne connaît pas la décision ; un renvoi après un délai dépassé
+ * (requête peut-être traitée) peut alors être débité une seconde fois.
+ *
+ * Banque injoignable : nouvel essai avec un délai exponentiel, puis, après
+ * payment.outbox.max-attempts essais, décision rmi.payment.unavailable-policy.
+ *
+ * Métriques : payment.outbox.pending et payment.outbox.lag.seconds (âge de la
+ * plus ancienne demande non traitée).
+ */
+@Service
+@ConditionalOnProperty(name = "payment.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentOutboxDispatcher.class);
+
+    @Autowired private PaymentOutboxRepository outboxRepo;
+    @Autowired private AsyncRemoteService<IPaymentServiceRemote> paymentAsync;
+    @Autowired private ReservationService reservationService;
+    @Autowired private BookingMetrics metrics;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Value("${payment.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${payment.outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${payment.outbox.backoff.initial-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${payment.outbox.backoff.max-ms:60000}")
+    private long maxBackoffMs;
+
+    @Value("${payment.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    private final Semaphore inFlight;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public PaymentOutboxDispatcher(@Value("${payment.outbox.max-in-flight:4}") int maxInFlight) {
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @PostConstruct
+    public void bindMetrics() {
+        Gauge.builder("payment.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("payment.outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .baseUnit("seconds").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-ms:200}")
+    public void dispatch() {
+        while (inFlight.tryAcquire()) {
+            List<PaymentOutbox> batch;
+            try {
+                batch = claimBatch();
+            } catch (RuntimeException e) {
+                inFlight.release();
+                log.warn("Outbox des paiements : lecture impossible ({})", e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                inFlight.release();
+                return;
+            }
+            send(batch);
+        }
+    }
+
+    // Prise des lignes dues ; les lignes prises entre-temps par un autre nœud sont écartées
+    private List<PaymentOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxRepo.findDueIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        if (outboxRepo.claim(ids, token, now, now.plus(Duration.ofMillis(leaseMs))) == 0) {
+            return List.of();
+        }
+        return outboxRepo.findByClaimTokenOrderById(token);
+    }
+
+    // Un appel processPayments par serveur attitré ; la place dans max-in-flight est rendue après le dernier
+    private void send(List<PaymentOutbox> batch) {
+        Map<String, List<PaymentOutbox>> byOwner = new LinkedHashMap<>();
+        for (PaymentOutbox o : batch) {
+            byOwner.computeIfAbsent(paymentAsync.ownerOf(transactionId(o)), owner -> new ArrayList<>()).add(o);
+        }
+        AtomicInteger remaining = new AtomicInteger(byOwner.size());
+        for (List<PaymentOutbox> group : byOwner.values()) {
+            sendGroup(group, remaining);
+        }
+    }
+
+    private void sendGroup(List<PaymentOutbox> group, AtomicInteger remaining) {
+        List<PaymentRequest> requests = new ArrayList<>(group.size());
+        for (PaymentOutbox o : group) {
+            requests.add(new PaymentRequest(transactionId(o), o.getCardData(), o.getAmount()));
+        }
+        long t = metrics.start();
+        paymentAsync.call("processPayments", requests.get(0).getTransactionId(), banque -> banque.processPayments(requests))
+                .whenComplete((results, error) -> {
+                    try {
+                        metrics.stage("payment", t);
+                        if (error == null) {
+                            complete(group, results);
+                        } else {
+                            retryLater(group, AsyncRemoteService.unwrap(error));
+                        }
+                    } catch (RuntimeException e) {
+                        // Le bail expirera : le lot sera repris
+                        log.error("Outbox des paiements : résultat non appliqué ({})", e.getMessage());
+                    } finally {
+                        if (remaining.decrementAndGet() == 0) {
+                            inFlight.release();
+                        }
+                    }
+                });
+    }
+
+    private void complete(List<PaymentOutbox> batch, boolean[] results) {
+        List<Long> paid = new ArrayList<>();
+        List<Long> refused = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            boolean accepted = results[i];
+            metrics.paymentResult(accepted ? "paid" : "refused");
+            (accepted ? paid : refused).add(batch.get(i).getReservationId());
+        }
+        reservationService.applyPaymentResults(paid, refused);
+    }
+
+    private void retryLater(List<PaymentOutbox> batch, Throwable error) {
+        String message = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+        if (message.length() > 500) {
+            message = message.substring(0, 500);
+        }
+        String token = batch.get(0).getClaimToken();
+
+        // Dernier essai épuisé : décision configurable (rmi.payment.unavailable-policy)
+        boolean accepted = paymentAsync.getUnavailablePolicy().allows();
+        List<Long> givenUp = new ArrayList<>();
+        // Un UPDATE par nombre d'essais : même délai pour toutes les lignes du groupe
+        Map<Integer, List<Long>> byAttempts = new TreeMap<>();
+        for (PaymentOutbox o : batch) {
+            int attempts = o.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                givenUp.add(o.getReservationId());
+                metrics.paymentResult(accepted ? "unavailable_accepted" : "unavailable_refused");
+            } else {
+                byAttempts.computeIfAbsent(attempts, a -> new ArrayList<>()).add(o.getId());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Integer, List<Long>> group : byAttempts.entrySet()) {
+            outboxRepo.reschedule(group.getValue(), token, now.plus(Duration.ofMillis(backoff(group.getKey()))), message);
+        }
+        if (!givenUp.isEmpty()) {
+            log.warn("Outbox des paiements : {} paiement(s) abandonné(s) après {} essais ({})",
+                    givenUp.size(), maxAttempts, message);
+            reservationService.applyPaymentResults(accepted ? givenUp : List.of(), accepted ? List.of() : givenUp);
+        } else {
+            log.warn("Outbox des paiements : banque indisponible, {} paiement(s) reportés ({})",
+                    batch.size(), message);
+        }
+    }
+
+    // initial * 2^(essais - 1), plafonné, avec une part aléatoire pour étaler les reprises
+    private long backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 20);
+        delay = Math.min(Math.max(delay, initialBackoffMs), maxBackoffMs);
+        return delay / 2 + (long) (Math.random() * (delay / 2 + 1));
+    }
+
+    // Stable d'un envoi à l'autre (lu en base) : clé de déduplication dans le journal de la banque
+    static String transactionId(PaymentOutbox o) {
+        if (o.getCreatedAt() == null) {
+            return "RES-" + o.getReservationId();
+        }
+        return "RES-" + o.getReservationId() + "-" + o.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.lag-refresh-ms:5000}")
+    public void refreshLag() {
+        LocalDateTime oldest = outboxRepo.findOldestCreatedAt();
+        pending.set(outboxRepo.count());
+        lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.distributed.spring_api.Service;
+
+import java.time.LocalDate;
+
+// Publié quand une réservation PENDING est enregistrée (le paiement part par PaymentOutbox)
+public class ReservationCreatedEvent {
+
+    private final Long reservationId;
+    private final int voitureId;
+    private final LocalDate dateDebut;
+    private final LocalDate dateFin;
+
+    public ReservationCreatedEvent(Long reservationId, int voitureId, LocalDate dateDebut, LocalDate dateFin) {
+        this.reservationId = reservationId;
+        this.voitureId = voitureId;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public int getVoitureId() {
+        return voitureId;
+    }
+
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+
+    public LocalDate getDateFin() {
+        return dateFin;
+    }
+}
@@ -0,0 +1,208 @@
+package com.distributed.spring_api.Service;
+
+import com.distributed.spring_api.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index en mémoire des périodes réservées (ni annulées, ni terminées), par
+ * voiture. C'est un indice, jamais une décision : chaque nœud tient le sien et
+ * ne voit que ses propres écritures ; une annulation, un paiement refusé ou une
+ * expiration traités sur un autre nœud y laissent une période périmée.
+ *
+ * - Période trouvée : la requête existsOverlappingReservation confirme, sans
+ *   verrou sur la voiture ; si elle ne trouve rien, les périodes de la voiture
+ *   sont rechargées depuis la base et la réservation continue normalement.
+ * - Rien trouvé : contrôle habituel sous verrou, qui reste l'autorité finale.
+ *
+ * L'index ne peut donc causer ni double réservation ni refus à tort. Les
+ * périodes passées sont retirées toutes les reservation.index.prune-interval-ms.
+ */
+@Component
+public class ReservationIntervalIndex {
+
+    @Autowired
+    private ReservationRepository reservationRepo;
+
+    private final Map<Integer, VehicleIntervals> byVoiture = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (Object[] row : reservationRepo.findActiveIntervals(LocalDate.now())) {
+            add((Integer) row[1], (Long) row[0], (LocalDate) row[2], (LocalDate) row[3]);
+        }
+    }
+
+    // Ajout après commit seulement : une transaction annulée ne laisse pas de période fantôme
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationCreated(ReservationCreatedEvent event) {
+        add(event.getVoitureId(), event.getReservationId(), event.getDateDebut(), event.getDateFin());
+    }
+
+    public void add(int voitureId, Long reservationId, LocalDate debut, LocalDate fin) {
+        byVoiture.compute(voitureId, (id, intervals) -> {
+            VehicleIntervals target = intervals != null ? intervals : new VehicleIntervals();
+            target.add(reservationId, debut, fin);
+            return target;
+        });
+    }
+
+    /**
+     * Retrait après le commit de la transaction courante (ou tout de suite hors
+     * transaction) : si l'annulation échoue, la période reste dans l'index.
+     */
+    public void removeAfterCommit(int voitureId, Long reservationId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(voitureId, reservationId);
+                }
+            });
+        } else {
+            remove(voitureId, reservationId);
+        }
+    }
+
+    public void remove(int voitureId, Long reservationId) {
+        VehicleIntervals intervals = byVoiture.get(voitureId);
+        if (intervals != null) {
+            intervals.remove(reservationId);
+        }
+    }
+
+    // Même règle que existsOverlappingReservation : dateDebut <= fin ET dateFin >= debut
+    public boolean overlaps(int voitureId, LocalDate debut, LocalDate fin) {
+        VehicleIntervals intervals = byVoiture.get(voitureId);
+        return intervals != null && intervals.overlaps(debut, fin);
+    }
+
+    // Période périmée détectée : la voiture repart de l'état de la base
+    public void reload(int voitureId) {
+        List<Object[]> rows = reservationRepo.findActiveIntervalsByVoiture(voitureId, LocalDate.now());
+        byVoiture.compute(voitureId, (id, intervals) -> {
+            if (rows.isEmpty()) {
+                return null;
+            }
+            VehicleIntervals target = new VehicleIntervals();
+            for (Object[] row : rows) {
+                target.add((Long) row[0], (LocalDate) row[2], (LocalDate) row[3]);
+            }
+            return target;
+        });
+    }
+
+    // Une période terminée ne peut plus chevaucher une nouvelle demande utile : l'index ne grossit pas sans fin
+    @Scheduled(fixedDelayString = "${reservation.index.prune-interval-ms:3600000}")
+    public void prune() {
+        LocalDate today = LocalDate.now();
+        for (Integer voitureId : byVoiture.keySet()) {
+            byVoiture.computeIfPresent(voitureId, (id, intervals) -> intervals.pruneBefore(today) ? null : intervals);
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (VehicleIntervals intervals : byVoiture.values()) {
+            total += intervals.size();
+        }
+        return total;
+    }
+
+    private static class Interval {
+        final Long reservationId;
+        final LocalDate debut;
+        final LocalDate fin;
+
+        Interval(Long reservationId, LocalDate debut, LocalDate fin) {
+            this.reservationId = reservationId;
+            this.debut = debut;
+            this.fin = fin;
+        }
+    }
+
+    /**
+     * Périodes d'une voiture triées par date de début. Une période qui chevauche
+     * [debut, fin] commence forcément entre debut - maxDays et fin : seule cette
+     * tranche est parcourue.
+     */
+    private static class VehicleIntervals {
+        private final TreeMap<LocalDate, List<Interval>> byStart = new TreeMap<>();
+        private final Map<Long, Interval> byId = new HashMap<>();
+        private long maxDays;
+
+        synchronized void add(Long reservationId, LocalDate debut, LocalDate fin) {
+            remove(reservationId);
+            Interval interval = new Interval(reservationId, debut, fin);
+            byStart.computeIfAbsent(debut, d -> new ArrayList<>(1)).add(interval);
+            byId.put(reservationId, interval);
+            maxDays = Math.max(maxDays, ChronoUnit.DAYS.between(debut, fin));
+        }
+
+        synchronized void remove(Long reservationId) {
+            Interval interval = byId.remove(reservationId);
+            if (interval == null) {
+                return;
+            }
+            List<Interval> sameStart = byStart.get(interval.debut);
+            sameStart.remove(interval);
+            if (sameStart.isEmpty()) {
+                byStart.remove(interval.debut);
+            }
+        }
+
+        synchronized boolean overlaps(LocalDate debut, LocalDate fin) {
+            NavigableMap<LocalDate, List<Interval>> candidates =
+                    byStart.subMap(debut.minusDays(maxDays), true, fin, true);
+            for (List<Interval> sameStart : candidates.values()) {
+                for (Interval interval : sameStart) {
+                    if (!interval.fin.isBefore(debut)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Retire les périodes finies avant 'today' ; vrai si la voiture n'en a plus aucune
+        synchronized boolean pruneBefore(LocalDate today) {
+            Iterator<List<Interval>> starts = byStart.headMap(today, false).values().iterator();
+            while (starts.hasNext()) {
+                List<Interval> sameStart = starts.next();
+                sameStart.removeIf(interval -> {
+                    boolean past = interval.fin.isBefore(today);
+                    if (past) {
+                        byId.remove(interval.reservationId);
+                    }
+                    return past;
+                });
+                if (sameStart.isEmpty()) {
+                    starts.remove();
+                }
+            }
+            return byId.isEmpty();
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+    }
+}
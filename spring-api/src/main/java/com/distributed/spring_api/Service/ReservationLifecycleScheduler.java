@@ -0,0 +1,106 @@
+package com.distributed.spring_api.Service;
+
+import com.distributed.spring_api.repository.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cycle de vie des réservations, toutes les reservation.lifecycle.interval-ms :
+ *  1. les PENDING plus anciennes que reservation.lifecycle.pending-timeout-ms sont annulées ;
+ *  2. les CONFIRMED dont la date de fin est passée deviennent COMPLETED, et
+ *     disponibilite est recalculée pour leurs voitures.
+ *
+ * Chaque étape avance par paquets de reservation.lifecycle.chunk-size ids
+ * (une transaction courte et quelques UPDATE en masse par paquet). Avec
+ * plusieurs nœuds, seul le détenteur du bail "reservation-lifecycle" travaille ;
+ * le bail est prolongé avant chaque paquet, et rendu à l'arrêt propre du nœud.
+ */
+@Component
+@ConditionalOnProperty(name = "reservation.lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationLifecycleScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationLifecycleScheduler.class);
+
+    static final String LEASE = "reservation-lifecycle";
+
+    @Autowired private ReservationRepository reservationRepo;
+    @Autowired private ReservationService reservationService;
+    @Autowired private SchedulerLeaseService leaseService;
+
+    @Value("${reservation.lifecycle.pending-timeout-ms:900000}")
+    private long pendingTimeoutMs;
+
+    @Value("${reservation.lifecycle.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${reservation.lifecycle.lease-ms:50000}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${reservation.lifecycle.interval-ms:60000}")
+    public void run() {
+        Duration lease = Duration.ofMillis(leaseMs);
+        if (!leaseService.tryAcquire(LEASE, lease)) {
+            return; // un autre nœud s'en charge
+        }
+        try {
+            int expired = expireStalePending(lease);
+            int completed = completeFinished(lease);
+            if (expired > 0 || completed > 0) {
+                log.info("Cycle de vie : {} réservation(s) PENDING expirée(s), {} location(s) terminée(s)",
+                        expired, completed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cycle de vie des réservations interrompu ({})", e.getMessage());
+        }
+    }
+
+    // Arrêt propre : rend le bail pour qu'un autre nœud reprenne sans attendre son expiration
+    @PreDestroy
+    public void releaseLease() {
+        try {
+            leaseService.release(LEASE);
+        } catch (RuntimeException e) {
+            log.warn("Bail {} non rendu à l'arrêt ({})", LEASE, e.getMessage());
+        }
+    }
+
+    private int expireStalePending(Duration lease) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(pendingTimeoutMs));
+        int total = 0;
+        long after = 0;
+        while (true) {
+            List<Long> ids = reservationRepo.findStalePendingIds(cutoff, after, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty() || !leaseService.tryAcquire(LEASE, lease)) {
+                return total;
+            }
+            total += reservationService.expirePending(ids);
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private int completeFinished(Duration lease) {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        long after = 0;
+        while (true) {
+            List<Long> ids = reservationRepo.findFinishedConfirmedIds(today, after, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty() || !leaseService.tryAcquire(LEASE, lease)) {
+                return total;
+            }
+            total += reservationService.completeFinished(ids, today);
+            after = ids.get(ids.size() - 1);
+        }
+    }
+}
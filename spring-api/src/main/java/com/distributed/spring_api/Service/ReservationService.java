@@ -1,49 +1,90 @@
 package com.distributed.spring_api.Service;
 
+import com.distributed.spring_api.cache.VoitureCatalogCache;
+import com.distributed.spring_api.datasource.ReadYourWrites;
+import com.distributed.spring_api.dto.ReservationHistoryItem;
+import com.distributed.spring_api.dto.ReservationHistoryPage;
 import com.distributed.spring_api.dto.ReservationRequest;
+import com.distributed.spring_api.dto.ReservationStatusResponse;
+import com.distributed.spring_api.metrics.BookingMetrics;
 import com.distributed.spring_api.model.*;
 import com.distributed.spring_api.repository.*;
-import com.distributed.spring_api.rmi.IPaymentServiceRemote; // Import de l'interface
 
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.rmi.Naming; // Nécessaire pour RMI
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ReservationService {
 
+    public static final int DEFAULT_HISTORY_SIZE = 20;
+    public static final int MAX_HISTORY_SIZE = 100;
+
     @Autowired private ReservationRepository reservationRepo;
     @Autowired private PaiementRepository paiementRepo;
     @Autowired private VoitureReposi voitureRepo;
     @Autowired private UserRepository userRepo;
+    @Autowired private PaymentOutboxRepository outboxRepo;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private ReservationIntervalIndex intervalIndex;
+    @Autowired private VoitureCatalogCache catalogCache;
+    @Autowired private BookingMetrics metrics;
+    @Autowired private ReadYourWrites readYourWrites;
 
     @Transactional
     public Reservation createReservation(ReservationRequest request) throws Exception {
+        metrics.timeCommit();
+
+        // Indice en mémoire (local à ce nœud, peut être périmé) : une période trouvée est confirmée
+        // par la base sans verrou ; un refus ne bloque donc jamais les autres réservations de la voiture
+        if (intervalIndex.overlaps(request.getVoitureId(), request.getStartDate(), request.getEndDate())) {
+            if (reservationRepo.existsOverlappingReservation(
+                    request.getVoitureId(), request.getStartDate(), request.getEndDate())) {
+                throw new Exception("Cette voiture n'est plus disponible.");
+            }
+            // Libérée sur un autre nœud (annulation, paiement refusé, expiration)
+            intervalIndex.reload(request.getVoitureId());
+        }
 
         // ... (Code de récupération et calculs inchangé) ...
         // ... (1. Récupération Voiture/Client) ...
-        Voiture voiture = voitureRepo.findById(request.getVoitureId())
+        // La voiture est verrouillée : deux réservations concurrentes de la même voiture
+        // ne peuvent plus passer toutes les deux le contrôle de chevauchement
+        long t = metrics.start();
+        Voiture voiture = voitureRepo.findByIdForUpdate(request.getVoitureId())
              .orElseThrow(() -> new Exception("Voiture introuvable"));
         User client = userRepo.findById(request.getClientId())
              .orElseThrow(() -> new Exception("Client introuvable"));
+        metrics.stage("lookup", t);
 
-        // ... (2. Vérifs Disponibilité) ...
+        // ... (2. Vérifs Disponibilité : la base reste l'autorité finale) ...
+        // Seul le chevauchement de dates compte, comme pour GET /api/voitures/search : disponibilite
+        // ne décrit que l'état du jour (location payée en cours ou à venir), pas la période demandée
+        t = metrics.start();
         boolean isBooked = reservationRepo.existsOverlappingReservation(
                 voiture.getVoitureId(), request.getStartDate(), request.getEndDate());
-        if (isBooked || !voiture.isDisponibilite()) {
+        metrics.stage("overlap_check", t);
+        if (isBooked) {
             throw new Exception("Cette voiture n'est plus disponible.");
         }
 
         // ... (3. Calculs prix) ...
-        long days = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate());
-        if (days < 1) days = 1;
-        double totalAmount = days * voiture.getPrixParJour();
+        double totalAmount = calculerTotal(request.getStartDate(), request.getEndDate(), voiture.getPrixParJour());
 
         // 4. Création Réservation (PENDING)
+        t = metrics.start();
         Reservation reservation = new Reservation();
         reservation.setClient(client);
         reservation.setVoiture(voiture);
@@ -53,67 +94,221 @@ public class ReservationService {
         reservation.setStatus("PENDING");
         Reservation savedReservation = reservationRepo.save(reservation);
 
-        // 5. Traitement du Paiement via RMI
+        // 5. Paiement PENDING, commité avec la réservation (phase 1)
         Paiement paiement = new Paiement();
         paiement.setReservation(savedReservation);
         paiement.setMontant(totalAmount);
+        paiement.setStatut("PENDING");
+        paiementRepo.save(paiement);
 
-        boolean paymentSuccess = false;
+        // 6. Demande de paiement dans l'outbox, commitée avec la réservation :
+        // PaymentOutboxDispatcher l'enverra à la banque, même après un redémarrage
+        PaymentOutbox outbox = new PaymentOutbox();
+        outbox.setReservationId(savedReservation.getId());
+        outbox.setCardData("cash".equalsIgnoreCase(request.getPaymentMethod())
+                ? "CASH-AGENCE"
+                : "CARD-1234-5678-9012");
+        outbox.setAmount(totalAmount);
+        outbox.setStatus("PENDING");
+        outbox.setNextAttemptAt(LocalDateTime.now());
+        outboxRepo.save(outbox);
+        metrics.stage("insert", t);
 
-        // --- DÉBUT LOGIQUE RMI ---
-        try {
-            System.out.println("🔄 Connexion au serveur bancaire RMI...");
-            
-            // Recherche du service distant
-            IPaymentServiceRemote banqueDistante = (IPaymentServiceRemote) Naming.lookup("rmi://localhost:1099/PaymentService");
-            
-            // Préparation des données (Carte fictive si cash, ou vraie carte)
-            String cardData = "cash".equalsIgnoreCase(request.getPaymentMethod()) 
-                            ? "CASH-AGENCE" 
-                            : "CARD-1234-5678-9012";
-
-            // Appel de la méthode distante (RPC)
-            paymentSuccess = banqueDistante.processPayment(cardData, totalAmount);
-            
-            System.out.println("Réponse de la banque : " + paymentSuccess);
-
-        } catch (Exception e) {
-            System.err.println("⚠️ Erreur critique RMI : " + e.getMessage());
-            // En cas de panne du serveur banque, on refuse le paiement par sécurité
-            paymentSuccess = false;
-        }
-        // --- FIN LOGIQUE RMI ---
-
-        if (paymentSuccess) {
-            paiement.setStatut("PAID");
-            savedReservation.setStatus("CONFIRMED");
-            
-            // Mise à jour voiture
-            voiture.setDisponibilite(false);
-            voitureRepo.save(voiture);
-        } else {
-            paiement.setStatut("FAILED");
-            savedReservation.setStatus("CANCELLED");
-        }
+        eventPublisher.publishEvent(new ReservationCreatedEvent(savedReservation.getId(), voiture.getVoitureId(),
+                savedReservation.getDateDebut(), savedReservation.getDateFin()));
 
-        paiementRepo.save(paiement);
+        // Le client relit aussitôt sa réservation : ces lectures restent sur la primaire un court instant
+        readYourWrites.recordWrite("client:" + client.getId());
+        readYourWrites.recordWrite("reservation:" + savedReservation.getId());
         return savedReservation;
     }
 
-    // (Les autres méthodes getReservationsByClient et cancelReservation restent inchangées)
-    public List<Reservation> getReservationsByClient(Long clientId) {
-        return reservationRepo.findByClient_Id(clientId);
+    // Prix de la location : au moins un jour facturé
+    public static double calculerTotal(LocalDate debut, LocalDate fin, double prixParJour) {
+        long days = ChronoUnit.DAYS.between(debut, fin);
+        if (days < 1) days = 1;
+        return days * prixParJour;
+    }
+
+    /**
+     * Phase 2 : applique un lot de réponses de la banque dans une transaction courte,
+     * en quelques UPDATE en masse. Les réservations qui ne sont plus PENDING
+     * (annulées entre-temps) sont ignorées. Les lignes d'outbox sont supprimées
+     * dans la même transaction : un résultat n'est jamais appliqué deux fois.
+     */
+    @Transactional
+    public void applyPaymentResults(List<Long> paid, List<Long> refused) {
+        List<Long> all = new ArrayList<>(paid.size() + refused.size());
+        all.addAll(paid);
+        all.addAll(refused);
+        if (all.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> pending = new HashMap<>();
+        for (Object[] row : reservationRepo.findPendingWithVoiture(all)) {
+            pending.put((Long) row[0], (Integer) row[1]);
+        }
+
+        List<Long> confirmed = paid.stream().filter(pending::containsKey).toList();
+        if (!confirmed.isEmpty()) {
+            reservationRepo.updatePendingStatus(confirmed, "CONFIRMED");
+            paiementRepo.updateStatutByReservationIds(confirmed, "PAID");
+            voitureRepo.markUnavailable(confirmed.stream().map(pending::get).distinct().toList());
+            catalogCache.invalidateAfterCommit();
+        }
+
+        List<Long> cancelled = refused.stream().filter(pending::containsKey).toList();
+        if (!cancelled.isEmpty()) {
+            reservationRepo.updatePendingStatus(cancelled, "CANCELLED");
+            paiementRepo.updateStatutByReservationIds(cancelled, "FAILED");
+            for (Long id : cancelled) {
+                intervalIndex.removeAfterCommit(pending.get(id), id);
+            }
+        }
+
+        outboxRepo.deleteByReservationIds(all);
+    }
+
+    /**
+     * Cycle de vie : annule un paquet de réservations PENDING expirées. La
+     * demande de paiement est retirée de l'outbox d'abord ; une réservation
+     * dont le paiement est en cours d'envoi reste PENDING (le résultat de la
+     * banque l'emportera). Renvoie le nombre de réservations annulées.
+     */
+    @Transactional
+    public int expirePending(List<Long> ids) {
+        outboxRepo.deleteUnclaimedByReservationIds(ids, LocalDateTime.now());
+        if (reservationRepo.cancelPendingWithoutOutbox(ids) == 0) {
+            return 0;
+        }
+        List<Object[]> cancelled = reservationRepo.findWithVoiture(ids, "CANCELLED");
+        List<Long> cancelledIds = cancelled.stream().map(row -> (Long) row[0]).toList();
+        paiementRepo.failPendingByReservationIds(cancelledIds);
+        for (Object[] row : cancelled) {
+            intervalIndex.removeAfterCommit((Integer) row[1], (Long) row[0]);
+        }
+        return cancelledIds.size();
+    }
+
+    /**
+     * Cycle de vie : passe un paquet de locations terminées en COMPLETED et
+     * recalcule disponibilite pour les voitures concernées, en quelques UPDATE.
+     */
+    @Transactional
+    public int completeFinished(List<Long> ids, LocalDate today) {
+        if (reservationRepo.completeConfirmed(ids) == 0) {
+            return 0;
+        }
+        List<Object[]> completed = reservationRepo.findWithVoiture(ids, "COMPLETED");
+        List<Integer> voitureIds = completed.stream().map(row -> (Integer) row[1]).distinct().toList();
+        refreshDisponibilite(voitureIds, today);
+        return completed.size();
+    }
+
+    // disponibilite = aucune location payée en cours ou à venir
+    @Transactional
+    public void refreshDisponibilite(List<Integer> voitureIds, LocalDate today) {
+        if (voitureIds.isEmpty()) {
+            return;
+        }
+        int changed = voitureRepo.releaseWithoutActiveRental(voitureIds, today)
+                + voitureRepo.holdWithActiveRental(voitureIds, today);
+        if (changed > 0) {
+            catalogCache.invalidateAfterCommit();
+        }
+    }
+
+    // Une seule requête (projection), sans charger client ni voiture ; sur une réplique sauf juste après l'écriture
+    @Transactional(readOnly = true)
+    public ReservationStatusResponse getReservationStatus(Long reservationId) throws Exception {
+        try (ReadYourWrites.Pin pin = readYourWrites.pinIfRecent("reservation:" + reservationId)) {
+            return reservationRepo.findStatusById(reservationId)
+                    .orElseThrow(() -> new Exception("Réservation introuvable"));
+        }
+    }
+
+    public ReservationStatusResponse toStatusResponse(Reservation res, String paymentStatus) {
+        ReservationStatusResponse response = new ReservationStatusResponse();
+        response.setId(res.getId());
+        response.setVoitureId(res.getVoiture().getVoitureId());
+        response.setDateDebut(res.getDateDebut());
+        response.setDateFin(res.getDateFin());
+        response.setTotal(res.getTotal());
+        response.setStatus(res.getStatus());
+        response.setPaymentStatus(paymentStatus);
+        return response;
+    }
+
+    // Historique client par curseur : 'before' = id de la dernière réservation déjà reçue (null = début)
+    @Transactional(readOnly = true)
+    public ReservationHistoryPage getReservationHistory(Long clientId, String before, Integer size) {
+        int limit = size == null ? DEFAULT_HISTORY_SIZE : Math.max(1, Math.min(size, MAX_HISTORY_SIZE));
+        long cursor = parseCursor(before);
+
+        // Un élément de plus pour savoir s'il reste une page
+        List<ReservationHistoryItem> rows;
+        try (ReadYourWrites.Pin pin = readYourWrites.pinIfRecent("client:" + clientId)) {
+            rows = reservationRepo.findHistory(clientId, cursor, PageRequest.of(0, limit + 1));
+        }
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            next = String.valueOf(rows.get(limit - 1).getId());
+        }
+        return new ReservationHistoryPage(rows, next);
+    }
+
+    // Curseur 'before' : un id renvoyé dans 'next' ; une valeur illisible est une erreur du client (400)
+    private static long parseCursor(String before) {
+        if (before == null || before.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(before.trim());
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur 'before' invalide : " + before);
+        }
     }
 
-    public Reservation cancelReservation(Long reservationId) throws Exception {
+    /**
+     * Annulation par le client. Une réservation PENDING n'est annulée que si sa
+     * demande de paiement n'est pas partie : la ligne d'outbox est retirée et le
+     * paiement passe FAILED dans la même transaction, comme dans expirePending.
+     * Si un dispatcher envoie la demande en ce moment, l'annulation est refusée
+     * (la banque a peut-être déjà débité) : le client réessaie une fois le
+     * résultat appliqué.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ReservationStatusResponse cancelReservation(Long reservationId) throws Exception {
         Reservation res = reservationRepo.findById(reservationId)
                 .orElseThrow(() -> new Exception("Réservation introuvable"));
         if ("COMPLETED".equals(res.getStatus())) throw new Exception("Impossible d'annuler une réservation terminée.");
-        
-        res.setStatus("CANCELLED");
-        Voiture voiture = res.getVoiture();
-        voiture.setDisponibilite(true);
-        voitureRepo.save(voiture);
-        return reservationRepo.save(res);
+
+        int voitureId = res.getVoiture().getVoitureId();
+        if ("PENDING".equals(res.getStatus())) {
+            cancelPending(reservationId);
+        } else {
+            res.setStatus("CANCELLED");
+            reservationRepo.saveAndFlush(res);
+        }
+        intervalIndex.removeAfterCommit(voitureId, res.getId());
+        // La voiture reste indisponible si une autre location payée est en cours ou à venir
+        refreshDisponibilite(List.of(voitureId), LocalDate.now());
+        readYourWrites.recordWrite("reservation:" + reservationId);
+        return getReservationStatus(reservationId);
+    }
+
+    // UPDATE conditionnels : un résultat de paiement appliqué entre-temps n'est pas écrasé
+    private void cancelPending(Long reservationId) throws Exception {
+        List<Long> ids = List.of(reservationId);
+        outboxRepo.deleteUnclaimedByReservationIds(ids, LocalDateTime.now());
+        if (reservationRepo.cancelPendingWithoutOutbox(ids) == 0) {
+            if (outboxRepo.existsByReservationId(reservationId)) {
+                throw new Exception("Paiement en cours de traitement, réessayez dans quelques instants.");
+            }
+            throw new Exception("Le statut de la réservation a changé, réessayez.");
+        }
+        paiementRepo.failPendingByReservationIds(ids);
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.distributed.spring_api.Service;
+
+import com.distributed.spring_api.model.SchedulerLease;
+import com.distributed.spring_api.repository.SchedulerLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Baux des tâches planifiées, stockés dans la table SchedulerLease : quand
+ * plusieurs nœuds spring-api tournent, un seul exécute une tâche donnée.
+ * Le détenteur prolonge son bail entre deux étapes ; s'il meurt, le bail
+ * expire et un autre nœud prend la relève.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    @Autowired
+    private SchedulerLeaseRepository repository;
+
+    // Identité de ce nœud : hôte + identifiant propre à ce démarrage
+    private final String owner = hostName() + "/" + UUID.randomUUID();
+
+    // Vrai si ce nœud détient le bail jusqu'à maintenant + duration
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(duration);
+        if (repository.acquire(name, owner, now, until) == 1) {
+            return true;
+        }
+        if (repository.existsById(name)) {
+            return false; // tenu par un autre nœud
+        }
+        SchedulerLease lease = new SchedulerLease();
+        lease.setName(name);
+        lease.setOwner(owner);
+        lease.setLeaseUntil(until);
+        try {
+            repository.saveAndFlush(lease);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // un autre nœud l'a créé en même temps
+        }
+    }
+
+    public void release(String name) {
+        repository.release(name, owner);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
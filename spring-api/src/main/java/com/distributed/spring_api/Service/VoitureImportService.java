@@ -0,0 +1,357 @@
+package com.distributed.spring_api.Service;
+
+import com.distributed.spring_api.cache.VoitureCatalogCache;
+import com.distributed.spring_api.dto.VoitureImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Import de flotte (CSV ou JSON) en flux continu : le fichier est lu ligne par
+ * ligne (ou objet par objet) et les voitures sont insérées par paquets de
+ * fleet.import.batch-size avec un seul executeBatch JDBC par paquet.
+ *
+ * Voiture garde son id IDENTITY : Hibernate ne regroupe pas ces INSERT, d'où
+ * ce chemin JDBC dédié (aucune entité, aucun id relu). Chaque paquet est commité
+ * à part ; si un paquet est refusé par la base, ses lignes sont rejouées une à
+ * une pour isoler les lignes fautives. La mémoire utilisée ne dépend que de la
+ * taille d'un paquet.
+ *
+ * Colonnes (noms JSON de Voiture) : marque, modele, prix_par_jour obligatoires ;
+ * locateur_id, agence_nom, agence_adresse, agence_phone, disponibilite (vrai par
+ * défaut), image_url, carburant facultatives.
+ */
+@Service
+public class VoitureImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(VoitureImportService.class);
+
+    public enum Format {
+        CSV, JSON;
+
+        // ?format=... prioritaire, sinon Content-Type ; null si inconnu
+        public static Format of(String format, String contentType) {
+            String value = format != null ? format : contentType;
+            if (value == null) {
+                return null;
+            }
+            value = value.toLowerCase(Locale.ROOT);
+            if (value.contains("csv")) {
+                return CSV;
+            }
+            if (value.contains("json")) {
+                return JSON;
+            }
+            return null;
+        }
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO Voiture (locateur_id, agence_nom, agence_adresse, agence_phone, marque, modele, " +
+            "prix_par_jour, disponibilite, image_url, carburant) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private VoitureCatalogCache catalogCache;
+
+    @Value("${fleet.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${fleet.import.max-errors:1000}")
+    private int maxErrors;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+
+    public VoitureImportService(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public VoitureImportReport importFleet(InputStream in, Format format) throws IOException {
+        Batch batch = new Batch(new VoitureImportReport());
+        long start = System.nanoTime();
+        if (format == Format.CSV) {
+            readCsv(in, batch);
+        } else {
+            readJson(in, batch);
+        }
+        batch.flush();
+
+        VoitureImportReport report = batch.report;
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        report.setRowsPerSecond(report.getElapsedMs() == 0
+                ? report.getInserted()
+                : report.getInserted() * 1000.0 / report.getElapsedMs());
+        if (report.getInserted() > 0) {
+            catalogCache.invalidate();
+        }
+        log.info("Import de flotte : {} ligne(s), {} insérée(s), {} en erreur, {} ms ({} lignes/s)",
+                report.getRows(), report.getInserted(), report.getFailed(), report.getElapsedMs(),
+                Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+
+    private void readCsv(InputStream in, Batch batch) throws IOException {
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024));
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // ligne vide
+            }
+            List<String> fields = record;
+            batch.add(csv.getLine(), name -> {
+                Integer i = columns.get(name);
+                return i == null || i >= fields.size() ? null : fields.get(i);
+            });
+        }
+    }
+
+    // Tableau JSON [ {...}, {...} ] ou NDJSON (un objet par ligne)
+    @SuppressWarnings("unchecked")
+    private void readJson(InputStream in, Batch batch) {
+        long index = 0;
+        try (JsonParser parser = jsonMapper.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                index++;
+                if (token != JsonToken.START_OBJECT) {
+                    batch.error(index, "Objet JSON attendu");
+                    parser.skipChildren();
+                } else {
+                    Map<String, Object> object = jsonMapper.readValue(parser, Map.class);
+                    batch.add(index, name -> {
+                        Object value = object.get(name);
+                        return value == null ? null : String.valueOf(value);
+                    });
+                }
+                token = parser.nextToken();
+            }
+        } catch (JacksonException e) {
+            // JSON illisible : les paquets précédents restent importés, la suite est abandonnée
+            batch.error(index + 1, "JSON invalide : " + e.getOriginalMessage());
+        }
+    }
+
+    // Paquet en cours : une ligne = les 10 paramètres de INSERT_SQL
+    private class Batch {
+        final VoitureImportReport report;
+        final List<Object[]> rows = new ArrayList<>(batchSize);
+        final List<Long> lines = new ArrayList<>(batchSize);
+
+        Batch(VoitureImportReport report) {
+            this.report = report;
+        }
+
+        void add(long line, Function<String, String> field) {
+            report.setRows(report.getRows() + 1);
+            Object[] row;
+            try {
+                row = toRow(field);
+            } catch (IllegalArgumentException e) {
+                error(line, e.getMessage());
+                return;
+            }
+            rows.add(row);
+            lines.add(line);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                transaction.executeWithoutResult(status -> jdbc.batchUpdate(INSERT_SQL, rows));
+                report.setInserted(report.getInserted() + rows.size());
+            } catch (DataAccessException e) {
+                // Paquet refusé : rejeu ligne par ligne pour n'écarter que les lignes fautives
+                for (int i = 0; i < rows.size(); i++) {
+                    try {
+                        jdbc.update(INSERT_SQL, rows.get(i));
+                        report.setInserted(report.getInserted() + 1);
+                    } catch (DataAccessException rowError) {
+                        error(lines.get(i), rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            report.setBatches(report.getBatches() + 1);
+            rows.clear();
+            lines.clear();
+        }
+
+        void error(long line, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxErrors) {
+                report.getErrors().add(new VoitureImportReport.RowError(line, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+    }
+
+    private static Object[] toRow(Function<String, String> field) {
+        String marque = required(field, "marque");
+        String modele = required(field, "modele");
+        double prix = parseDouble(required(field, "prix_par_jour"), "prix_par_jour");
+        if (prix <= 0) {
+            throw new IllegalArgumentException("prix_par_jour doit être positif");
+        }
+        String locateur = optional(field, "locateur_id");
+        String disponibilite = optional(field, "disponibilite");
+        return new Object[] {
+                locateur == null ? 0 : parseInt(locateur, "locateur_id"),
+                optional(field, "agence_nom"),
+                optional(field, "agence_adresse"),
+                optional(field, "agence_phone"),
+                marque,
+                modele,
+                prix,
+                disponibilite == null || parseBoolean(disponibilite),
+                optional(field, "image_url"),
+                optional(field, "carburant")
+        };
+    }
+
+    private static String required(Function<String, String> field, String name) {
+        String value = optional(field, name);
+        if (value == null) {
+            throw new IllegalArgumentException(name + " manquant");
+        }
+        return value;
+    }
+
+    private static String optional(Function<String, String> field, String name) {
+        String value = field.apply(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static double parseDouble(String value, String name) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " invalide : " + value);
+        }
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " invalide : " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "oui", "yes" -> true;
+            case "false", "0", "non", "no" -> false;
+            default -> throw new IllegalArgumentException("disponibilite invalide : " + value);
+        };
+    }
+
+    /**
+     * Lecteur CSV minimal (RFC 4180) : séparateur virgule, champs entre
+     * guillemets avec "" pour un guillemet et retours à la ligne autorisés.
+     */
+    static class CsvReader {
+        private final BufferedReader reader;
+        private long line;
+        private long recordLine;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        // null en fin de fichier
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        break;
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int n = reader.read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == -1 || c == '\n') {
+                    break;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        // Numéro de ligne (à partir de 1) où commence le dernier enregistrement lu
+        long getLine() {
+            return recordLine;
+        }
+    }
+}
@@ -1,27 +1,86 @@
 package com.distributed.spring_api.Service;
 
+import com.distributed.spring_api.cache.VoitureCatalogCache;
+import com.distributed.spring_api.dto.VoitureFilter;
+import com.distributed.spring_api.dto.VoiturePage;
 import com.distributed.spring_api.model.Voiture;
 import com.distributed.spring_api.repository.VoitureReposi;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
 public class VoitureService {
 
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private VoitureReposi repo;
 
-    public List<Voiture> getAllVoitures() {
-        return repo.findAll();
+    // Lecture seule depuis le cache ; invalidé par ReservationService à chaque changement de voiture
+    @Autowired
+    private VoitureCatalogCache cache;
+
+    // Page du catalogue après le curseur 'after' (null = première page) ; disponible = null pour tout le parc
+    public VoiturePage getPage(VoitureFilter filter, Boolean disponible, String after, Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int cursor = parseCursor(after);
+        String key = disponible + "|" + cursor + "|" + limit + "|" + filter;
+        return cache.getPage(key, () -> loadPage(filter, disponible, cursor, limit));
+    }
+
+    // Voitures libres sur toute la période [debut, fin] ; non mis en cache (change à chaque réservation)
+    public VoiturePage searchFree(LocalDate debut, LocalDate fin, VoitureFilter filter, String after, Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int cursor = parseCursor(after);
+
+        List<Voiture> rows = repo.findFreeBetween(debut, fin, cursor, filter.getMarque(), filter.getCarburant(),
+                filter.getAgenceNom(), filter.getPrixMin(), filter.getPrixMax(), PageRequest.of(0, limit + 1));
+        return toPage(rows, limit);
+    }
+
+    // Curseur 'after' : un voitureId renvoyé dans 'next' ; une valeur illisible est une erreur du client (400)
+    private static int parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(after.trim());
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur 'after' invalide : " + after);
+        }
+    }
+
+    // ETag du catalogue : change à chaque invalidation
+    public String getCatalogETag() {
+        return cache.etag();
+    }
+
+    private VoiturePage loadPage(VoitureFilter filter, Boolean disponible, int cursor, int limit) {
+        // On lit un élément de plus pour savoir s'il existe une page suivante
+        List<Voiture> rows = repo.findPage(cursor, disponible, filter.getMarque(), filter.getCarburant(),
+                filter.getAgenceNom(), filter.getPrixMin(), filter.getPrixMax(), PageRequest.of(0, limit + 1));
+
+        return toPage(rows, limit);
     }
 
-    public List<Voiture> getVoituresDisponibles() {
-        return repo.findByDisponibilite(true);
+    // On a lu limit + 1 lignes : la dernière indique seulement qu'une page suivante existe
+    private VoiturePage toPage(List<Voiture> rows, int limit) {
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            next = String.valueOf(rows.get(limit - 1).getVoitureId());
+        }
+        return new VoiturePage(rows, next);
     }
 
     public Voiture getVoitureById(int id) {
-        return repo.findById(id).orElse(null);
+        return cache.getById(id, () -> repo.findById(id).orElse(null));
     }
 }
\ No newline at end of file
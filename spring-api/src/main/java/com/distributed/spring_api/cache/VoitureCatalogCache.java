@@ -0,0 +1,119 @@
+package com.distributed.spring_api.cache;
+
+import com.distributed.spring_api.dto.VoiturePage;
+import com.distributed.spring_api.model.Voiture;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache du catalogue (voitures par id, pages) avec une
+ * version unique qui sert d'ETag. Toute modification d'une voiture
+ * (disponibilite ou données) appelle invalidateAfterCommit() : la version
+ * change et tout le contenu est vidé.
+ *
+ * Cette invalidation reste locale au nœud : une modification faite ailleurs
+ * n'y est pas vue. Tout le contenu, ETag compris, a donc une durée de vie
+ * commune (catalog.cache.page-ttl-ms) : passé ce délai, la version change
+ * et le cache repart de la base. Un nœud ne sert ni voiture ni 304 plus vieux
+ * que ce délai.
+ */
+@Component
+public class VoitureCatalogCache {
+
+    // Démarre à l'heure de lancement : deux instances successives ne produisent pas le même ETag
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    private final Map<Integer, Voiture> byId = new ConcurrentHashMap<>();
+    private final TtlCache<String, VoiturePage> pages;
+    private final long pageTtlMs;
+
+    private volatile long expiresAt;
+
+    public VoitureCatalogCache(@Value("${catalog.cache.max-pages:1000}") int maxPages,
+                               @Value("${catalog.cache.page-ttl-ms:300000}") long pageTtlMs) {
+        this.pages = new TtlCache<>(maxPages);
+        this.pageTtlMs = pageTtlMs;
+        this.expiresAt = System.currentTimeMillis() + pageTtlMs;
+    }
+
+    public String etag() {
+        expireIfStale();
+        return "\"catalog-" + version.get() + "\"";
+    }
+
+    public Voiture getById(int id, Supplier<Voiture> loader) {
+        expireIfStale();
+        Voiture cached = byId.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long v = version.get();
+        Voiture loaded = loader.get();
+        if (loaded != null && version.get() == v) {
+            byId.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    public VoiturePage getPage(String key, Supplier<VoiturePage> loader) {
+        expireIfStale();
+        VoiturePage cached = pages.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long v = version.get();
+        VoiturePage loaded = loader.get();
+        // Une lecture commencée avant une invalidation n'est pas remise en cache
+        if (version.get() == v) {
+            pages.put(key, loaded, pageTtlMs);
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalide après le commit de la transaction courante (ou tout de suite hors
+     * transaction) : un lecteur concurrent ne peut pas recharger l'ancien état
+     * encore visible en base et le remettre en cache.
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    // Durée de vie du contenu dépassée : même effet qu'une invalidation
+    private void expireIfStale() {
+        if (System.currentTimeMillis() >= expiresAt) {
+            synchronized (this) {
+                if (System.currentTimeMillis() >= expiresAt) {
+                    invalidate();
+                }
+            }
+        }
+    }
+
+    public void invalidate() {
+        expiresAt = System.currentTimeMillis() + pageTtlMs;
+        version.incrementAndGet();
+        byId.clear();
+        pages.invalidateAll();
+    }
+
+    public TtlCache<String, VoiturePage> getPages() {
+        return pages;
+    }
+}
@@ -0,0 +1,21 @@
+package com.distributed.spring_api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Appels RMI asynchrones (AsyncRemoteService) : un thread virtuel par appel en attente,
+    // aucun thread plateforme bloqué pendant que la banque ou la police répond.
+    // Sert aussi aux accès base de l'inscription asynchrone (AuthController)
+    @Bean(destroyMethod = "close")
+    public ExecutorService rmiAsyncExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
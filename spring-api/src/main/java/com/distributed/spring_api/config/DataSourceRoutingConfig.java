@@ -0,0 +1,111 @@
+package com.distributed.spring_api.config;
+
+import com.distributed.spring_api.datasource.ReadWriteRoutingDataSource;
+import com.distributed.spring_api.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primaire + répliques en lecture (datasource.routing.enabled=true) : les
+ * transactions @Transactional(readOnly = true) lisent sur une réplique à jour,
+ * tout le reste écrit et lit sur la primaire (spring.datasource.*).
+ * Chaque base a son propre pool Hikari, dimensionné séparément.
+ *
+ * Désactivé par défaut : la source de données unique de Spring Boot est alors utilisée.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${spring.datasource.driverClassName:}") String driverClassName,
+            @Value("${datasource.primary.maximum-pool-size:10}") int maxPoolSize,
+            @Value("${datasource.primary.minimum-idle:2}") int minIdle) {
+        return pool("primary", url, username, password, driverClassName, maxPoolSize, minIdle, false);
+    }
+
+    // Répliques : datasource.replicas.urls=jdbc:sqlserver://replica1...,jdbc:sqlserver://replica2...
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            HikariDataSource primaryDataSource,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${spring.datasource.driverClassName:}") String driverClassName,
+            @Value("${datasource.replicas.maximum-pool-size:10}") int maxPoolSize,
+            @Value("${datasource.replicas.minimum-idle:2}") int minIdle,
+            @Value("${datasource.routing.max-lag-ms:5000}") long maxLagMs,
+            MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            if (urls.get(i).isBlank()) {
+                continue;
+            }
+            String name = "replica-" + i;
+            HikariDataSource pool = pool(name, urls.get(i).trim(), username, password, driverClassName,
+                    maxPoolSize, minIdle, true);
+            replicaPools.add(pool);
+            replicas.put(name, pool);
+        }
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, replicas, maxLagMs);
+        monitor.bindMetrics(meterRegistry);
+        return monitor;
+    }
+
+    // Connexion choisie à la première requête, une fois le drapeau readOnly de la transaction posé
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource);
+        for (HikariDataSource replica : replicaPools) {
+            targets.put(replica.getPoolName(), replica);
+        }
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLagMonitor);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void closeReplicas() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password,
+                                         String driverClassName, int maxPoolSize, int minIdle, boolean readOnly) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        if (!driverClassName.isBlank()) {
+            pool.setDriverClassName(driverClassName);
+        }
+        pool.setMaximumPoolSize(maxPoolSize);
+        pool.setMinimumIdle(minIdle);
+        pool.setReadOnly(readOnly);
+        return pool;
+    }
+}
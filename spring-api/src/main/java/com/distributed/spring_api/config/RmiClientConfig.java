@@ -0,0 +1,109 @@
+package com.distributed.spring_api.config;
+
+import com.distributed.spring_api.rmi.AsyncRemoteService;
+import com.distributed.spring_api.rmi.CircuitBreaker;
+import com.distributed.spring_api.rmi.IPaymentServiceRemote;
+import com.distributed.spring_api.rmi.IVerificationServiceRemote;
+import com.distributed.spring_api.rmi.RmiServiceClient;
+import com.distributed.spring_api.rmi.RmiServiceCluster;
+import com.distributed.spring_api.rmi.TimeoutSocketFactory;
+import com.distributed.spring_api.rmi.UnavailablePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.rmi.server.RMISocketFactory;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class RmiClientConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RmiClientConfig.class);
+
+    @Value("${rmi.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${rmi.response-timeout-ms:10000}")
+    private int responseTimeoutMs;
+
+    // Sans ces réglages, un serveur RMI bloqué retient les threads indéfiniment
+    @PostConstruct
+    public void installTransportTimeouts() {
+        System.setProperty("sun.rmi.transport.tcp.responseTimeout", String.valueOf(responseTimeoutMs));
+        try {
+            if (RMISocketFactory.getSocketFactory() == null) {
+                RMISocketFactory.setSocketFactory(new TimeoutSocketFactory(connectTimeoutMs));
+            }
+        } catch (IOException e) {
+            log.warn("Fabrique de sockets RMI déjà installée : {}", e.getMessage());
+        }
+    }
+
+    // Serveurs Banque (PaymentServer), un ou plusieurs : rmi.payment.urls=rmi://h1:1099/PaymentService,rmi://h2:1099/PaymentService
+    @Bean
+    public RmiServiceCluster<IPaymentServiceRemote> paymentCluster(
+            @Value("${rmi.payment.urls:rmi://localhost:1099/PaymentService}") List<String> urls,
+            @Value("${rmi.payment.strategy:LEAST_OUTSTANDING}") RmiServiceCluster.Strategy strategy,
+            @Value("${rmi.payment.timeout-ms:3000}") long timeoutMs,
+            @Value("${rmi.payment.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${rmi.payment.circuit.open-ms:10000}") long openMs,
+            @Value("${rmi.payment.unavailable-policy:FAIL_CLOSED}") UnavailablePolicy policy,
+            MeterRegistry meterRegistry) {
+        return new RmiServiceCluster<>("payment", urls, strategy, policy,
+                url -> new RmiServiceClient<>(nodeName("payment", url), url, IPaymentServiceRemote.class,
+                        timeoutMs, new CircuitBreaker(failureThreshold, openMs), policy, meterRegistry));
+    }
+
+    // Serveurs Police (GovernmentServer), un ou plusieurs
+    @Bean
+    public RmiServiceCluster<IVerificationServiceRemote> policeCluster(
+            @Value("${rmi.police.urls:rmi://localhost:1100/PoliceService}") List<String> urls,
+            @Value("${rmi.police.strategy:ROUND_ROBIN}") RmiServiceCluster.Strategy strategy,
+            @Value("${rmi.police.timeout-ms:2000}") long timeoutMs,
+            @Value("${rmi.police.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${rmi.police.circuit.open-ms:10000}") long openMs,
+            @Value("${rmi.police.unavailable-policy:FAIL_OPEN}") UnavailablePolicy policy,
+            MeterRegistry meterRegistry) {
+        return new RmiServiceCluster<>("police", urls, strategy, policy,
+                url -> new RmiServiceClient<>(nodeName("police", url), url, IVerificationServiceRemote.class,
+                        timeoutMs, new CircuitBreaker(failureThreshold, openMs), policy, meterRegistry));
+    }
+
+    // Banque en asynchrone : jamais de requête couverte (un débit ne doit pas partir deux fois)
+    @Bean
+    public AsyncRemoteService<IPaymentServiceRemote> paymentAsync(
+            RmiServiceCluster<IPaymentServiceRemote> paymentCluster,
+            ExecutorService rmiAsyncExecutor,
+            MeterRegistry meterRegistry) {
+        AsyncRemoteService<IPaymentServiceRemote> service = new AsyncRemoteService<>(paymentCluster, rmiAsyncExecutor);
+        service.bindMetrics(meterRegistry);
+        return service;
+    }
+
+    // Police en asynchrone : vérification idempotente, couverte par un autre nœud si le cluster en compte plusieurs
+    @Bean
+    public AsyncRemoteService<IVerificationServiceRemote> policeAsync(
+            RmiServiceCluster<IVerificationServiceRemote> policeCluster,
+            ExecutorService rmiAsyncExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${rmi.police.hedge.enabled:true}") boolean hedging,
+            @Value("${rmi.police.hedge.percentile:0.95}") double percentile,
+            @Value("${rmi.police.hedge.min-delay-ms:50}") long minDelayMs) {
+        AsyncRemoteService<IVerificationServiceRemote> service = new AsyncRemoteService<>(
+                policeCluster, rmiAsyncExecutor, hedging, percentile, minDelayMs);
+        service.bindMetrics(meterRegistry);
+        return service;
+    }
+
+    // Nom d'un nœud dans les métriques et /api/rmi/stats : payment@hote:port
+    private static String nodeName(String service, String url) {
+        return service + "@" + URI.create(url.trim()).getAuthority();
+    }
+}
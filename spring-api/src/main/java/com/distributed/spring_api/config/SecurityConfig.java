@@ -1,17 +1,31 @@
 package com.distributed.spring_api.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.UUID;
 
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -31,12 +45,45 @@ public class SecurityConfig {
                         // Autoriser la lecture des paiements (si nécessaire)
                         .requestMatchers("/api/paiements/**").permitAll()
 
+                        // Statistiques des clients RMI (lookups / reconnexions)
+                        .requestMatchers("/api/rmi/**").permitAll()
+
+                        // Sondes et métriques (scrape Prometheus)
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+
                         // Tout le reste nécessite une connexion (Token/Session)
                         .anyRequest().authenticated());
 
         return http.build();
     }
 
+    // Administration (caches, import de flotte, export des paiements) : chaîne dédiée, rôle ADMIN en HTTP Basic, sans session
+    @Bean
+    @Order(1)
+    public SecurityFilterChain adminFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/api/admin/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("ADMIN"))
+                .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
+    // Compte d'exploitation unique ; admin.password peut être déjà encodé ({bcrypt}...)
+    @Bean
+    public UserDetailsService adminAccount(@Value("${admin.username:admin}") String username,
+                                           @Value("${admin.password:}") String password) {
+        PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        if (password.isBlank()) {
+            password = UUID.randomUUID().toString();
+            log.warn("admin.password non défini : mot de passe généré pour '{}' : {}", username, password);
+        }
+        String encoded = password.startsWith("{") ? password : encoder.encode(password);
+        return new InMemoryUserDetailsManager(User.withUsername(username).password(encoded).roles("ADMIN").build());
+    }
+
     // ... (Le reste de votre méthode corsConfigurationSource reste inchangé) ...
     @Bean
     public UrlBasedCorsConfigurationSource corsConfigurationSource() {
@@ -44,6 +91,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:5173"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Location du 202 de POST /api/reservations, lue par le front pour suivre le paiement
+        configuration.setExposedHeaders(List.of("Location"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,33 @@
+package com.distributed.spring_api.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routage des connexions : transaction @Transactional(readOnly = true) vers une
+ * réplique à jour (voir ReplicaLagMonitor), tout le reste vers la primaire.
+ *
+ * Doit être enveloppé dans un LazyConnectionDataSourceProxy : la connexion n'est
+ * alors choisie qu'à la première requête, quand le drapeau readOnly de la
+ * transaction est connu.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor monitor;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPinned()) {
+            return PRIMARY;
+        }
+        // Aucune réplique assez à jour : repli sur la primaire
+        String replica = monitor.nextReplica();
+        return replica == null ? PRIMARY : replica;
+    }
+}
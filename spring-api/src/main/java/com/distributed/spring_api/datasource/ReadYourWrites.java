@@ -0,0 +1,69 @@
+package com.distributed.spring_api.datasource;
+
+import com.distributed.spring_api.cache.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lecture de ses propres écritures : pendant datasource.routing.read-your-writes-ms
+ * après une écriture (une réservation, par exemple), les lectures liées à la même
+ * clé sont servies par la base primaire, même dans une transaction readOnly.
+ * Une réplique en retard ne peut donc pas « perdre » la réservation qu'on vient de créer.
+ *
+ * La fenêtre est propre à ce nœud ; sans routage (datasource.routing.enabled=false),
+ * tout passe déjà par la primaire et ce composant n'a aucun effet.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final ThreadLocal<Integer> PINNED = ThreadLocal.withInitial(() -> 0);
+
+    private final TtlCache<String, Boolean> recentWrites;
+    private final long windowMs;
+
+    public ReadYourWrites(@Value("${datasource.routing.read-your-writes-ms:5000}") long windowMs,
+                          @Value("${datasource.routing.read-your-writes.max-keys:100000}") int maxKeys) {
+        this.windowMs = windowMs;
+        this.recentWrites = new TtlCache<>(maxKeys);
+    }
+
+    // Appelé par ReadWriteRoutingDataSource au moment de choisir la connexion
+    public static boolean isPinned() {
+        return PINNED.get() > 0;
+    }
+
+    public void recordWrite(String key) {
+        if (windowMs > 0) {
+            recentWrites.put(key, Boolean.TRUE, windowMs);
+        }
+    }
+
+    /**
+     * Lectures sur la primaire jusqu'à close() si la clé a été écrite récemment.
+     * La connexion étant obtenue à la première requête (LazyConnectionDataSourceProxy),
+     * l'appel peut se faire au début d'une méthode @Transactional(readOnly = true).
+     */
+    public Pin pinIfRecent(String key) {
+        if (recentWrites.get(key) == null) {
+            return Pin.NONE;
+        }
+        PINNED.set(PINNED.get() + 1);
+        return Pin.PRIMARY;
+    }
+
+    public enum Pin implements AutoCloseable {
+        NONE, PRIMARY;
+
+        @Override
+        public void close() {
+            if (this == PRIMARY) {
+                int depth = PINNED.get() - 1;
+                if (depth <= 0) {
+                    PINNED.remove();
+                } else {
+                    PINNED.set(depth);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.distributed.spring_api.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retard des répliques, mesuré par battement de cœur : à chaque refresh(), la
+ * primaire écrit l'heure courante dans ReplicaHeartbeat, puis chaque réplique
+ * est relue. Le retard est l'écart entre les deux valeurs ; au-delà de
+ * datasource.routing.max-lag-ms (ou si la réplique ne répond pas), la réplique
+ * n'est plus utilisée et ses lectures repartent vers la primaire.
+ *
+ * Le retard mesuré inclut l'intervalle entre deux battements : max-lag-ms doit
+ * donc dépasser datasource.routing.heartbeat-ms. Avant la première mesure,
+ * aucune réplique n'est utilisée.
+ *
+ * Métriques : datasource.replica.lag.seconds et datasource.replica.usable (tag replica).
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String UPDATE_BEAT = "UPDATE ReplicaHeartbeat SET beat_millis = ? WHERE heartbeat_id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO ReplicaHeartbeat (heartbeat_id, beat_millis) VALUES (1, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_millis FROM ReplicaHeartbeat WHERE heartbeat_id = 1";
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, long maxLagMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.maxLagMs = maxLagMs;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag.seconds", replica, r -> r.lagMs < 0 ? Double.NaN : r.lagMs / 1000.0)
+                    .tag("replica", replica.name).register(meterRegistry);
+            Gauge.builder("datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .tag("replica", replica.name).register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.heartbeat-ms:1000}")
+    public void refresh() {
+        long beat = System.currentTimeMillis();
+        try {
+            writeHeartbeat(beat);
+        } catch (DataAccessException e) {
+            log.warn("Battement de cœur non écrit sur la primaire ({})", e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            try {
+                Long seen = replica.jdbc.queryForObject(SELECT_BEAT, Long.class);
+                replica.lagMs = seen == null ? -1 : Math.max(0, beat - seen);
+            } catch (DataAccessException e) {
+                replica.lagMs = -1; // injoignable, ou battement pas encore répliqué
+            }
+            boolean usable = replica.lagMs >= 0 && replica.lagMs <= maxLagMs;
+            if (usable != replica.usable) {
+                log.info("Réplique {} {} (retard {} ms)", replica.name, usable ? "réintégrée" : "écartée", replica.lagMs);
+            }
+            replica.usable = usable;
+        }
+    }
+
+    private void writeHeartbeat(long beat) {
+        if (primary.update(UPDATE_BEAT, beat) == 0) {
+            try {
+                primary.update(INSERT_BEAT, beat);
+            } catch (DataIntegrityViolationException e) {
+                primary.update(UPDATE_BEAT, beat); // créé par un autre nœud entre-temps
+            }
+        }
+    }
+
+    // Réplique suivante (tourniquet) parmi celles assez à jour ; null si aucune
+    public String nextReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.usable) {
+                return replica.name;
+            }
+        }
+        return null;
+    }
+
+    public long getLagMs(String name) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name)) {
+                return replica.lagMs;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Replica {
+        final String name;
+        final JdbcTemplate jdbc;
+        volatile long lagMs = -1;
+        volatile boolean usable;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.jdbc.setQueryTimeout(2);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.distributed.spring_api.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Paiement sans le graphe Reservation -> User / Voiture
+@Data
+public class PaiementView {
+    private Long id;
+    private Long reservationId;
+    private Double montant;
+    private LocalDateTime datePaiement;
+    private String statut;
+
+    public PaiementView(Long id, Long reservationId, Double montant, LocalDateTime datePaiement, String statut) {
+        this.id = id;
+        this.reservationId = reservationId;
+        this.montant = montant;
+        this.datePaiement = datePaiement;
+        this.statut = statut;
+    }
+}
@@ -0,0 +1,53 @@
+package com.distributed.spring_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Ligne de l'historique client, construite directement par la requête JPQL (une seule jointure, pas d'entités)
+@Data
+public class ReservationHistoryItem {
+    private Long id;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private String status;
+    private Double total;
+
+    @JsonProperty("created_at")
+    private LocalDateTime createdAt;
+
+    private String paymentStatus;
+    private VoitureSummary voiture;
+
+    public ReservationHistoryItem(Long id, LocalDate dateDebut, LocalDate dateFin, String status, Double total,
+                                  LocalDateTime createdAt, int voitureId, String marque, String modele,
+                                  String agenceNom, String imageUrl, String paymentStatus) {
+        this.id = id;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.status = status;
+        this.total = total;
+        this.createdAt = createdAt;
+        this.paymentStatus = paymentStatus;
+        this.voiture = new VoitureSummary(voitureId, marque, modele, agenceNom, imageUrl);
+    }
+
+    // Seuls les champs de la voiture affichés dans "Mes réservations"
+    @Data
+    public static class VoitureSummary {
+        private int voitureId;
+        private String marque;
+        private String modele;
+        private String agenceNom;
+        private String imageUrl;
+
+        public VoitureSummary(int voitureId, String marque, String modele, String agenceNom, String imageUrl) {
+            this.voitureId = voitureId;
+            this.marque = marque;
+            this.modele = modele;
+            this.agenceNom = agenceNom;
+            this.imageUrl = imageUrl;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.distributed.spring_api.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// Page de l'historique (du plus récent au plus ancien) : 'next' se renvoie dans ?before=... (null en fin d'historique)
+@Data
+public class ReservationHistoryPage {
+    private List<ReservationHistoryItem> items;
+    private String next;
+
+    public ReservationHistoryPage(List<ReservationHistoryItem> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+}
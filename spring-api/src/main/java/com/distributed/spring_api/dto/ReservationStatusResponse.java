@@ -0,0 +1,34 @@
+package com.distributed.spring_api.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+// Réponse de POST /api/reservations (202) et de GET /api/reservations/{id}
+@Data
+@NoArgsConstructor
+public class ReservationStatusResponse {
+    private Long id;
+    private int voitureId;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private Double total;
+
+    // 'PENDING', 'CONFIRMED', 'CANCELLED'
+    private String status;
+
+    // 'PENDING', 'PAID', 'FAILED'
+    private String paymentStatus;
+
+    // Utilisé par la projection JPQL de ReservationRepository.findStatusById
+    public ReservationStatusResponse(Long id, int voitureId, LocalDate dateDebut, LocalDate dateFin,
+                                     Double total, String status, String paymentStatus) {
+        this.id = id;
+        this.voitureId = voitureId;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.total = total;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+    }
+}
@@ -0,0 +1,13 @@
+package com.distributed.spring_api.dto;
+
+import lombok.Data;
+
+// Filtres optionnels du catalogue (paramètres de requête : ?marque=...&prixMax=...)
+@Data
+public class VoitureFilter {
+    private String marque;
+    private String carburant;
+    private String agenceNom;
+    private Double prixMin;
+    private Double prixMax;
+}
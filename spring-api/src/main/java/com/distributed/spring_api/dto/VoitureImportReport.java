@@ -0,0 +1,26 @@
+package com.distributed.spring_api.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bilan d'un import de flotte (POST /api/admin/voitures/import) : débit et erreurs ligne par ligne
+@Data
+public class VoitureImportReport {
+    private long rows;
+    private long inserted;
+    private long failed;
+    private int batches;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<RowError> errors = new ArrayList<>();
+    // Vrai si des erreurs au-delà de fleet.import.max-errors n'ont pas été listées
+    private boolean errorsTruncated;
+
+    // line : numéro de ligne CSV (en-tête = 1) ou rang de l'objet JSON (à partir de 1)
+    @Data
+    public static class RowError {
+        private final long line;
+        private final String message;
+    }
+}
@@ -0,0 +1,17 @@
+package com.distributed.spring_api.dto;
+
+import com.distributed.spring_api.model.Voiture;
+import lombok.Data;
+import java.util.List;
+
+// Page du catalogue : 'next' est le curseur à renvoyer dans ?after=... (null sur la dernière page)
+@Data
+public class VoiturePage {
+    private List<Voiture> items;
+    private String next;
+
+    public VoiturePage(List<Voiture> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+}
@@ -0,0 +1,74 @@
+package com.distributed.spring_api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métriques du parcours de réservation et d'inscription (exposées sur /actuator/prometheus).
+ *
+ * reservation.stage (tag stage) : lookup, overlap_check, insert, commit, payment.
+ * Les requêtes SQL sont mesurées à part par spring.data.repository.invocations,
+ * et le pool JDBC par les jauges hikaricp.connections.*.
+ */
+@Component
+public class BookingMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stage(String stage, long startNanos) {
+        Timer.builder("reservation.stage")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Durée du commit (flush compris) de la transaction en cours
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long beforeCommit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                beforeCommit = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                stage("commit", beforeCommit);
+            }
+        });
+    }
+
+    // paid, refused, unavailable_accepted, unavailable_refused
+    public void paymentResult(String outcome) {
+        count("reservation.payment.results", outcome);
+    }
+
+    // clean, blacklisted, unavailable_accepted, unavailable_refused
+    public void policeVerification(String outcome) {
+        count("auth.signup.verifications", outcome);
+    }
+
+    private void count(String name, String outcome) {
+        Counter.builder(name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,62 @@
+package com.distributed.spring_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+// Réponse mémorisée d'un POST rejoué avec le même en-tête Idempotency-Key (voir IdempotencyService)
+@Entity
+@Data
+@Table(name = "IdempotencyRecord", indexes = {
+        // Purge des clés expirées
+        @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    // Empreinte SHA-256 du corps : la même clé avec un autre corps est refusée
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    // 'IN_PROGRESS', 'DONE'
+    @Column(length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "http_status")
+    private Integer httpStatus;
+
+    @Column(length = 200)
+    private String location;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Toujours un INSERT pour une nouvelle clé (pas de SELECT préalable de merge) :
+    // deux requêtes concurrentes avec la même clé se heurtent à la clé primaire
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -15,7 +15,7 @@ public class Paiement {
     @Column(name = "paiement_id")
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reservation_id", unique = true, nullable = false)
     private Reservation reservation;
 
@@ -0,0 +1,54 @@
+package com.distributed.spring_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+
+// Paiement à envoyer à la banque, écrit dans la même transaction que la réservation PENDING
+@Entity
+@Data
+@Table(name = "PaymentOutbox", indexes = {
+        // Lignes dues, dans l'ordre d'arrivée (PaymentOutboxDispatcher)
+        @Index(name = "idx_outbox_due", columnList = "status, next_attempt_at, outbox_id")
+})
+public class PaymentOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long id;
+
+    @Column(name = "reservation_id", nullable = false, unique = true)
+    private Long reservationId;
+
+    @Column(name = "card_data", length = 50, nullable = false)
+    private String cardData;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    // 'PENDING' (à envoyer), 'IN_FLIGHT' (pris par un dispatcher jusqu'à lease_until)
+    @Column(length = 20, nullable = false)
+    private String status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Jeton du dispatcher qui a pris la ligne ; une ligne IN_FLIGHT dont le bail a expiré redevient due
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.distributed.spring_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Battement de cœur écrit sur la primaire et relu sur les répliques pour mesurer leur retard (voir ReplicaLagMonitor)
+@Entity
+@Data
+@Table(name = "ReplicaHeartbeat")
+public class ReplicaHeartbeat {
+
+    @Id
+    @Column(name = "heartbeat_id")
+    private Integer id;
+
+    // Heure d'écriture (ms depuis l'époque) sur la primaire
+    @Column(name = "beat_millis", nullable = false)
+    private long beatMillis;
+}
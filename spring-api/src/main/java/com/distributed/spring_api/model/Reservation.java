@@ -8,7 +8,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "Reservation")
+@Table(name = "Reservation", indexes = {
+        // Contrôle de chevauchement et recherche par dates (anti-join de VoitureReposi.findFreeBetween)
+        @Index(name = "idx_reservation_voiture_dates", columnList = "voiture_id, date_debut, date_fin, status"),
+        // Cycle de vie : PENDING expirées et locations terminées (ReservationLifecycleScheduler)
+        @Index(name = "idx_reservation_status_fin", columnList = "status, date_fin")
+})
 public class Reservation {
 
     @Id
@@ -16,11 +21,12 @@ public class Reservation {
     @Column(name = "reservation_id")
     private Long id;
 
-    @ManyToOne
+    // LAZY : les lectures passent par des projections DTO (voir ReservationRepository.findHistory)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
     private User client;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "voiture_id", nullable = false)
     private Voiture voiture;
 
@@ -30,7 +36,7 @@ public class Reservation {
     @Column(name = "date_fin", nullable = false)
     private LocalDate dateFin;
 
-    // 'PENDING', 'CONFIRMED', 'CANCELLED'
+    // 'PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED'
     @Column(length = 20)
     private String status;
 
@@ -0,0 +1,38 @@
+package com.distributed.spring_api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+// Bail d'une tâche planifiée : un seul nœud spring-api l'exécute à la fois (voir SchedulerLeaseService)
+@Entity
+@Data
+@Table(name = "SchedulerLease")
+public class SchedulerLease implements Persistable<String> {
+
+    @Id
+    @Column(name = "lease_name", length = 100)
+    private String name;
+
+    @Column(length = 100, nullable = false)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    // Toujours un INSERT pour un nouveau bail : deux nœuds concurrents se heurtent à la clé primaire
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.distributed.spring_api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
@@ -19,6 +20,8 @@ public class User {
     @Column(nullable = false, unique = true, length = 120)
     private String email;
 
+    // Jamais renvoyé dans une réponse JSON
+    @JsonIgnore
     @Column(nullable = false, length = 255)
     private String password;
 
@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "Voiture")
+@Table(name = "Voiture", indexes = {
+        // Index des filtres du catalogue, suffixés par la clé du curseur
+        @Index(name = "idx_voiture_dispo", columnList = "disponibilite, voiture_id"),
+        @Index(name = "idx_voiture_marque", columnList = "marque, voiture_id"),
+        @Index(name = "idx_voiture_carburant", columnList = "carburant, voiture_id"),
+        @Index(name = "idx_voiture_agence", columnList = "agence_nom, voiture_id"),
+        @Index(name = "idx_voiture_prix", columnList = "prix_par_jour, voiture_id")
+})
 public class Voiture {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "voiture_id")
     @JsonProperty("voiture_id")
     private int voitureId;
 
@@ -0,0 +1,39 @@
+package com.distributed.spring_api.repository;
+
+import com.distributed.spring_api.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Reprise d'une clé expirée (réponse périmée ou bail IN_PROGRESS dépassé) pas encore purgée
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.status = 'IN_PROGRESS', " +
+            "r.httpStatus = null, r.location = null, r.contentType = null, r.responseBody = null, " +
+            "r.createdAt = :now, r.expiresAt = :leaseUntil WHERE r.key = :key AND r.expiresAt < :now")
+    int reclaimExpired(@Param("key") String key, @Param("requestHash") String requestHash,
+                       @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Réponse mémorisée seulement si la clé est toujours réservée (pas reprise après expiration du bail)
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'DONE', r.httpStatus = :httpStatus, r.location = :location, " +
+            "r.contentType = :contentType, r.responseBody = :body, r.expiresAt = :expiresAt " +
+            "WHERE r.key = :key AND r.requestHash = :requestHash AND r.status = 'IN_PROGRESS'")
+    int complete(@Param("key") String key, @Param("requestHash") String requestHash,
+                 @Param("httpStatus") int httpStatus, @Param("location") String location,
+                 @Param("contentType") String contentType, @Param("body") String body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Purge en une requête (sans charger les lignes)
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,8 +1,14 @@
 package com.distributed.spring_api.repository;
 
+import com.distributed.spring_api.dto.PaiementView;
 import com.distributed.spring_api.model.Paiement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +18,24 @@ public interface PaiementRepository extends JpaRepository<Paiement, Long> {
     // Note: Dans JPA, on utilise le "_" pour naviguer dans l'objet lié (Reservation
     // -> id)
     Optional<Paiement> findByReservation_Id(Long reservationId);
+
+    // Projections : une seule requête sur Paiement, sans charger Reservation / User / Voiture
+    @Query("SELECT new com.distributed.spring_api.dto.PaiementView(" +
+            "p.id, p.reservation.id, p.montant, p.datePaiement, p.statut) " +
+            "FROM Paiement p WHERE p.reservation.id = :reservationId")
+    Optional<PaiementView> findViewByReservationId(@Param("reservationId") Long reservationId);
+
+    @Query("SELECT new com.distributed.spring_api.dto.PaiementView(" +
+            "p.id, p.reservation.id, p.montant, p.datePaiement, p.statut) " +
+            "FROM Paiement p ORDER BY p.id")
+    List<PaiementView> findAllViews();
+
+    @Modifying
+    @Query("UPDATE Paiement p SET p.statut = :statut WHERE p.reservation.id IN :reservationIds")
+    int updateStatutByReservationIds(@Param("reservationIds") Collection<Long> reservationIds,
+                                     @Param("statut") String statut);
+
+    @Modifying
+    @Query("UPDATE Paiement p SET p.statut = 'FAILED' WHERE p.reservation.id IN :reservationIds AND p.statut = 'PENDING'")
+    int failPendingByReservationIds(@Param("reservationIds") Collection<Long> reservationIds);
 }
\ No newline at end of file
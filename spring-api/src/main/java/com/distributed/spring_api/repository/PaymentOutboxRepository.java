@@ -0,0 +1,67 @@
+package com.distributed.spring_api.repository;
+
+import com.distributed.spring_api.model.PaymentOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Long> {
+
+    // Lignes dues : à envoyer, ou prises par un dispatcher disparu (bail expiré)
+    @Query("SELECT o.id FROM PaymentOutbox o " +
+            "WHERE (o.status = 'PENDING' AND o.nextAttemptAt <= :now) " +
+            "OR (o.status = 'IN_FLIGHT' AND o.leaseUntil < :now) " +
+            "ORDER BY o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable limit);
+
+    /**
+     * Prise des lignes en une requête. La condition est réévaluée sous verrou
+     * de ligne : une ligne prise entre-temps par un autre nœud est ignorée
+     * (équivalent portable d'un SKIP LOCKED).
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.status = 'IN_FLIGHT', o.claimToken = :token, o.leaseUntil = :leaseUntil " +
+            "WHERE o.id IN :ids AND ((o.status = 'PENDING' AND o.nextAttemptAt <= :now) " +
+            "OR (o.status = 'IN_FLIGHT' AND o.leaseUntil < :now))")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<PaymentOutbox> findByClaimTokenOrderById(String claimToken);
+
+    // Nouvel essai plus tard (banque indisponible)
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.status = 'PENDING', o.attempts = o.attempts + 1, " +
+            "o.nextAttemptAt = :next, o.claimToken = NULL, o.leaseUntil = NULL, o.lastError = :error " +
+            "WHERE o.id IN :ids AND o.claimToken = :token")
+    int reschedule(@Param("ids") Collection<Long> ids, @Param("token") String token,
+                   @Param("next") LocalDateTime next, @Param("error") String error);
+
+    // Résultat appliqué : appelé dans la transaction qui met à jour les statuts
+    @Modifying
+    @Query("DELETE FROM PaymentOutbox o WHERE o.reservationId IN :reservationIds")
+    int deleteByReservationIds(@Param("reservationIds") Collection<Long> reservationIds);
+
+    // Expiration d'une réservation PENDING : on retire sa demande sauf si un dispatcher l'envoie en ce moment
+    @Modifying
+    @Query("DELETE FROM PaymentOutbox o WHERE o.reservationId IN :reservationIds " +
+            "AND (o.status = 'PENDING' OR o.leaseUntil < :now)")
+    int deleteUnclaimedByReservationIds(@Param("reservationIds") Collection<Long> reservationIds,
+                                        @Param("now") LocalDateTime now);
+
+    // Ligne restante après deleteUnclaimedByReservationIds : demande en cours d'envoi
+    boolean existsByReservationId(Long reservationId);
+
+    // Retard du dispatcher : âge de la plus ancienne ligne en attente
+    @Query("SELECT MIN(o.createdAt) FROM PaymentOutbox o")
+    LocalDateTime findOldestCreatedAt();
+}
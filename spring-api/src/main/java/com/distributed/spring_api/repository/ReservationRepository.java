@@ -1,11 +1,18 @@
 package com.distributed.spring_api.repository;
 
+import com.distributed.spring_api.dto.ReservationHistoryItem;
+import com.distributed.spring_api.dto.ReservationStatusResponse;
 import com.distributed.spring_api.model.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
@@ -19,5 +26,63 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             @Param("debut") LocalDate debut,
             @Param("fin") LocalDate fin);
 
-    List<Reservation> findByClient_Id(Long clientId);
+    // Historique client en une seule requête (DTO, pas d'entités), paginé par curseur décroissant sur l'id
+    @Query("SELECT new com.distributed.spring_api.dto.ReservationHistoryItem(" +
+            "r.id, r.dateDebut, r.dateFin, r.status, r.total, r.createdAt, " +
+            "v.voitureId, v.marque, v.modele, v.agenceNom, v.imageUrl, p.statut) " +
+            "FROM Reservation r JOIN r.voiture v LEFT JOIN Paiement p ON p.reservation = r " +
+            "WHERE r.client.id = :clientId AND r.id < :before " +
+            "ORDER BY r.id DESC")
+    List<ReservationHistoryItem> findHistory(@Param("clientId") Long clientId,
+            @Param("before") Long before,
+            Pageable limit);
+
+    @Query("SELECT new com.distributed.spring_api.dto.ReservationStatusResponse(" +
+            "r.id, r.voiture.voitureId, r.dateDebut, r.dateFin, r.total, r.status, p.statut) " +
+            "FROM Reservation r LEFT JOIN Paiement p ON p.reservation = r " +
+            "WHERE r.id = :id")
+    Optional<ReservationStatusResponse> findStatusById(@Param("id") Long id);
+
+    // Périodes encore utiles à l'index en mémoire (ni annulées, ni terminées, ni passées) : [id, voitureId, dateDebut, dateFin]
+    @Query("SELECT r.id, r.voiture.voitureId, r.dateDebut, r.dateFin FROM Reservation r " +
+            "WHERE r.status NOT IN ('CANCELLED', 'COMPLETED') AND r.dateFin >= :today")
+    List<Object[]> findActiveIntervals(@Param("today") LocalDate today);
+
+    @Query("SELECT r.id, r.voiture.voitureId, r.dateDebut, r.dateFin FROM Reservation r " +
+            "WHERE r.voiture.voitureId = :voitureId " +
+            "AND r.status NOT IN ('CANCELLED', 'COMPLETED') AND r.dateFin >= :today")
+    List<Object[]> findActiveIntervalsByVoiture(@Param("voitureId") int voitureId, @Param("today") LocalDate today);
+
+    // Réservations encore PENDING parmi un lot de résultats de paiement : [id, voitureId]
+    @Query("SELECT r.id, r.voiture.voitureId FROM Reservation r " +
+            "WHERE r.id IN :ids AND r.status = 'PENDING'")
+    List<Object[]> findPendingWithVoiture(@Param("ids") Collection<Long> ids);
+
+    // Mise à jour en masse : une seule requête UPDATE pour tout le lot
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :status WHERE r.id IN :ids AND r.status = 'PENDING'")
+    int updatePendingStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    // Cycle de vie (ReservationLifecycleScheduler) : ids par paquets, pagination par curseur sur l'id
+    @Query("SELECT r.id FROM Reservation r WHERE r.status = 'PENDING' " +
+            "AND r.createdAt < :cutoff AND r.id > :after ORDER BY r.id")
+    List<Long> findStalePendingIds(@Param("cutoff") LocalDateTime cutoff, @Param("after") Long after, Pageable limit);
+
+    @Query("SELECT r.id FROM Reservation r WHERE r.status = 'CONFIRMED' " +
+            "AND r.dateFin < :today AND r.id > :after ORDER BY r.id")
+    List<Long> findFinishedConfirmedIds(@Param("today") LocalDate today, @Param("after") Long after, Pageable limit);
+
+    // [id, voitureId] des réservations du lot qui ont le statut donné
+    @Query("SELECT r.id, r.voiture.voitureId FROM Reservation r WHERE r.id IN :ids AND r.status = :status")
+    List<Object[]> findWithVoiture(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    // PENDING expirées : on ne touche pas à celles dont le paiement est en cours d'envoi (ligne d'outbox restante)
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = 'CANCELLED' WHERE r.id IN :ids AND r.status = 'PENDING' " +
+            "AND NOT EXISTS (SELECT o.id FROM PaymentOutbox o WHERE o.reservationId = r.id)")
+    int cancelPendingWithoutOutbox(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = 'COMPLETED' WHERE r.id IN :ids AND r.status = 'CONFIRMED'")
+    int completeConfirmed(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
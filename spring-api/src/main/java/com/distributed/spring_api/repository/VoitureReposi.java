@@ -1,15 +1,91 @@
 package com.distributed.spring_api.repository;
 
 import com.distributed.spring_api.model.Voiture;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VoitureReposi extends JpaRepository<Voiture, Integer> {
 
-    List<Voiture> findByDisponibilite(boolean disponibilite);
-
+    // Lectures du catalogue : readOnly ici plutôt que dans VoitureService, pour qu'un accès
+    // servi par VoitureCatalogCache n'ouvre pas de transaction (réplique en lecture si routage actif)
+    @Transactional(readOnly = true)
     List<Voiture> findAll();
 
-}
+    // Pagination par curseur (keyset) : on repart après le dernier voitureId vu, sans OFFSET
+    @Query("SELECT v FROM Voiture v WHERE v.voitureId > :after " +
+            "AND (:disponible IS NULL OR v.disponibilite = :disponible) " +
+            "AND (:marque IS NULL OR v.marque = :marque) " +
+            "AND (:carburant IS NULL OR v.carburant = :carburant) " +
+            "AND (:agenceNom IS NULL OR v.agenceNom = :agenceNom) " +
+            "AND (:prixMin IS NULL OR v.prixParJour >= :prixMin) " +
+            "AND (:prixMax IS NULL OR v.prixParJour <= :prixMax) " +
+            "ORDER BY v.voitureId")
+    @Transactional(readOnly = true)
+    List<Voiture> findPage(@Param("after") int after,
+            @Param("disponible") Boolean disponible,
+            @Param("marque") String marque,
+            @Param("carburant") String carburant,
+            @Param("agenceNom") String agenceNom,
+            @Param("prixMin") Double prixMin,
+            @Param("prixMax") Double prixMax,
+            Pageable limit);
+
+    // Voitures libres sur [debut, fin] : un seul anti-join (NOT EXISTS) sur Reservation,
+    // servi par l'index idx_reservation_voiture_dates, avec la même pagination par curseur
+    @Query("SELECT v FROM Voiture v WHERE v.voitureId > :after " +
+            "AND (:marque IS NULL OR v.marque = :marque) " +
+            "AND (:carburant IS NULL OR v.carburant = :carburant) " +
+            "AND (:agenceNom IS NULL OR v.agenceNom = :agenceNom) " +
+            "AND (:prixMin IS NULL OR v.prixParJour >= :prixMin) " +
+            "AND (:prixMax IS NULL OR v.prixParJour <= :prixMax) " +
+            "AND NOT EXISTS (SELECT r.id FROM Reservation r " +
+            "    WHERE r.voiture = v " +
+            "    AND r.dateDebut <= :fin AND r.dateFin >= :debut " +
+            "    AND r.status <> 'CANCELLED') " +
+            "ORDER BY v.voitureId")
+    @Transactional(readOnly = true)
+    List<Voiture> findFreeBetween(@Param("debut") LocalDate debut,
+            @Param("fin") LocalDate fin,
+            @Param("after") int after,
+            @Param("marque") String marque,
+            @Param("carburant") String carburant,
+            @Param("agenceNom") String agenceNom,
+            @Param("prixMin") Double prixMin,
+            @Param("prixMax") Double prixMax,
+            Pageable limit);
+
+    // Verrou de ligne sur la voiture (SELECT ... FOR UPDATE / UPDLOCK) jusqu'au commit :
+    // les réservations d'une même voiture passent l'une après l'autre, les autres voitures ne sont pas bloquées
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Voiture v WHERE v.voitureId = :id")
+    Optional<Voiture> findByIdForUpdate(@Param("id") int id);
+
+    @Modifying
+    @Query("UPDATE Voiture v SET v.disponibilite = false WHERE v.voitureId IN :ids")
+    int markUnavailable(@Param("ids") Collection<Integer> ids);
+
+    // Recalcul de disponibilite : une voiture est indisponible tant qu'une location payée n'est pas terminée
+    @Modifying
+    @Query("UPDATE Voiture v SET v.disponibilite = true WHERE v.voitureId IN :ids AND v.disponibilite = false " +
+            "AND NOT EXISTS (SELECT r.id FROM Reservation r WHERE r.voiture = v " +
+            "    AND r.status = 'CONFIRMED' AND r.dateFin >= :today)")
+    int releaseWithoutActiveRental(@Param("ids") Collection<Integer> ids, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query("UPDATE Voiture v SET v.disponibilite = false WHERE v.voitureId IN :ids AND v.disponibilite = true " +
+            "AND EXISTS (SELECT r.id FROM Reservation r WHERE r.voiture = v " +
+            "    AND r.status = 'CONFIRMED' AND r.dateFin >= :today)")
+    int holdWithActiveRental(@Param("ids") Collection<Integer> ids, @Param("today") LocalDate today);
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.distributed.spring_api.rmi;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Façade asynchrone d'un service RMI : chaque appel renvoie un CompletableFuture
+ * et s'exécute sur l'executor fourni (threads virtuels en pratique). L'appelant
+ * ne bloque donc aucun thread plateforme pendant l'attente du serveur.
+ *
+ * Requêtes couvertes (hedging, optionnel) : si la première réponse tarde
+ * au-delà du percentile de latence observé, le même appel repart dans le
+ * cluster en excluant les nœuds déjà essayés par la tentative principale
+ * (quelle que soit la stratégie du cluster), et la première réponse gagne.
+ * Sans effet avec un seul nœud. Réservé aux appels idempotents
+ * (vérification police) : jamais pour un débit bancaire.
+ */
+public class AsyncRemoteService<T extends Remote> {
+
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+
+    private final String name;
+    private final RemoteService<T> service;
+    private final Executor executor;
+    private final boolean hedging;
+    private final double hedgePercentile;
+    private final long minHedgeDelayMs;
+
+    // Dernières latences (ms) des premières tentatives, pour le délai de couverture
+    private final long[] latencies = new long[WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+
+    public AsyncRemoteService(RemoteService<T> service, Executor executor) {
+        this(service, executor, false, 0.95, 50);
+    }
+
+    public AsyncRemoteService(RemoteService<T> service, Executor executor,
+                              boolean hedging, double hedgePercentile, long minHedgeDelayMs) {
+        this.name = service.getName();
+        this.service = service;
+        this.executor = executor;
+        this.hedging = hedging;
+        this.hedgePercentile = hedgePercentile;
+        this.minHedgeDelayMs = minHedgeDelayMs;
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("rmi.hedge.sent", hedgesSent, AtomicLong::get)
+                .tag("service", name).register(meterRegistry);
+        FunctionCounter.builder("rmi.hedge.won", hedgesWon, AtomicLong::get)
+                .tag("service", name).register(meterRegistry);
+    }
+
+    /**
+     * Appel asynchrone. En cas d'échec, le future est complété avec la
+     * RemoteException d'origine (voir unwrap pour les étapes suivantes).
+     */
+    public <R> CompletableFuture<R> call(String method, RmiCall<T, R> call) {
+        boolean hedge = hedging && service.replicaCount() > 1;
+        Attempts<R> attempts = new Attempts<>(hedge);
+
+        attempt(0, method, call, attempts);
+        if (hedge) {
+            CompletableFuture.runAsync(() -> hedge(method, call, attempts),
+                    CompletableFuture.delayedExecutor(hedgeDelayMs(), TimeUnit.MILLISECONDS, executor));
+        }
+        return attempts.result;
+    }
+
+    /**
+     * Appel épinglé sur le serveur attitré de affinityKey (voir
+     * RmiServiceCluster) : jamais couvert, pour qu'une même clé ne parte pas
+     * sur deux serveurs.
+     */
+    public <R> CompletableFuture<R> call(String method, String affinityKey, RmiCall<T, R> call) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.call(method, affinityKey, call);
+            } catch (RemoteException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(unwrap(error));
+            }
+        });
+        return result;
+    }
+
+    public String ownerOf(String affinityKey) {
+        return service.ownerOf(affinityKey);
+    }
+
+    private <R> void attempt(int attempt, String method, RmiCall<T, R> call, Attempts<R> attempts) {
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return attempts.visited == null
+                        ? service.call(method, call)
+                        : service.callAvoiding(method, attempts.visited, call);
+            } catch (RemoteException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).whenComplete((value, error) -> {
+            if (error == null) {
+                if (attempt == 0) {
+                    recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+                if (attempts.result.complete(value) && attempt > 0) {
+                    hedgesWon.incrementAndGet();
+                }
+                return;
+            }
+            // La principale a échoué avant le délai : la couverture part tout de suite
+            if (attempt == 0) {
+                attempts.primaryError = unwrap(error);
+                hedge(method, call, attempts);
+            }
+            if (attempts.inFlight.decrementAndGet() == 0) {
+                // L'erreur de la principale prime sur celle de la couverture
+                Throwable primary = attempts.primaryError;
+                attempts.result.completeExceptionally(primary != null ? primary : unwrap(error));
+            }
+        });
+    }
+
+    private <R> void hedge(String method, RmiCall<T, R> call, Attempts<R> attempts) {
+        if (attempts.result.isDone() || !attempts.hedged.compareAndSet(false, true)) {
+            return;
+        }
+        attempts.inFlight.incrementAndGet();
+        hedgesSent.incrementAndGet();
+        attempt(1, method, call, attempts);
+    }
+
+    private synchronized void recordLatency(long ms) {
+        latencies[latencyNext] = ms;
+        latencyNext = (latencyNext + 1) % WINDOW;
+        latencyCount = Math.min(latencyCount + 1, WINDOW);
+    }
+
+    // Percentile des latences récentes, jamais sous minHedgeDelayMs
+    synchronized long hedgeDelayMs() {
+        if (latencyCount < MIN_SAMPLES) {
+            return minHedgeDelayMs;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(hedgePercentile * sorted.length) - 1;
+        return Math.max(minHedgeDelayMs, sorted[Math.max(0, index)]);
+    }
+
+    // Cause réelle d'un échec remonté par une étape CompletableFuture
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHedging() {
+        return hedging;
+    }
+
+    public UnavailablePolicy getUnavailablePolicy() {
+        return service.getUnavailablePolicy();
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    // État partagé par la tentative principale et sa couverture
+    private static class Attempts<R> {
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private final AtomicInteger inFlight = new AtomicInteger(1);
+        private final AtomicBoolean hedged;
+        // Nœuds déjà essayés, exclus de la couverture (null sans couverture)
+        private final Set<String> visited;
+        private volatile Throwable primaryError;
+
+        Attempts(boolean hedge) {
+            this.hedged = new AtomicBoolean(!hedge);
+            this.visited = hedge ? ConcurrentHashMap.newKeySet() : null;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.distributed.spring_api.rmi;
+
+// Refus du disjoncteur : l'appel n'a jamais quitté le client, il peut partir vers un autre nœud
+public class CircuitOpenException extends RemoteServiceUnavailableException {
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
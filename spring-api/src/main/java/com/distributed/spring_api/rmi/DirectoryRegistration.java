@@ -0,0 +1,73 @@
+package com.distributed.spring_api.rmi;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.rmi.Naming;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Côté serveur RMI : inscription dans l'annuaire puis battements réguliers.
+ * Actif seulement si -Ddirectory.url est fourni (ex. rmi://annuaire:1098/ServiceDirectory) ;
+ * sinon le serveur fonctionne comme avant, avec une URL configurée côté spring-api.
+ *
+ * -Ddirectory.ttl-ms (10000) : durée de vie d'une inscription ; battement toutes les ttl/3.
+ */
+public final class DirectoryRegistration {
+
+    private static final System.Logger LOG = System.getLogger(DirectoryRegistration.class.getName());
+
+    private DirectoryRegistration() {
+    }
+
+    public static void start(String service, int registryPort, String bindingName) {
+        String directoryUrl = System.getProperty("directory.url");
+        if (directoryUrl == null || directoryUrl.isBlank()) {
+            return;
+        }
+        long ttlMs = Long.getLong("directory.ttl-ms", 10000);
+        String url = "rmi://" + advertisedHost() + ":" + registryPort + "/" + bindingName;
+
+        ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "directory-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeats.scheduleWithFixedDelay(() -> {
+            try {
+                IServiceDirectoryRemote directory = (IServiceDirectoryRemote) Naming.lookup(directoryUrl);
+                if (!directory.heartbeat(service, url)) {
+                    directory.register(service, url, ttlMs);
+                }
+            } catch (Exception e) {
+                // Annuaire indisponible : on réessaie au prochain battement
+                LOG.log(System.Logger.Level.WARNING, "Annuaire injoignable : {0}", e.getMessage());
+            }
+        }, 0, Math.max(1, ttlMs / 3), TimeUnit.MILLISECONDS);
+
+        // Arrêt propre : retrait immédiat plutôt qu'après expiration
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            heartbeats.shutdownNow();
+            try {
+                ((IServiceDirectoryRemote) Naming.lookup(directoryUrl)).deregister(service, url);
+            } catch (Exception e) {
+                // l'inscription expirera d'elle-même
+            }
+        }));
+        LOG.log(System.Logger.Level.INFO, "Inscription de {0} dans l''annuaire {1}", url, directoryUrl);
+    }
+
+    // Adresse annoncée : java.rmi.server.hostname si défini, sinon le nom de la machine
+    private static String advertisedHost() {
+        String host = System.getProperty("java.rmi.server.hostname");
+        if (host != null && !host.isBlank()) {
+            return host;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.distributed.spring_api.rmi;
+
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Annuaire des serveurs RMI (Banque, Police). Chaque inscription a une durée de
+ * vie renouvelée par les battements ; un serveur arrêté sans se désinscrire
+ * disparaît donc après ttlMs. Tout est en mémoire : après un redémarrage de
+ * l'annuaire, les battements renvoient faux et les serveurs se réinscrivent.
+ */
+public class DirectoryServer extends UnicastRemoteObject implements IServiceDirectoryRemote {
+
+    private static final System.Logger LOG = System.getLogger(DirectoryServer.class.getName());
+
+    // service -> url -> inscription
+    private final Map<String, Map<String, Entry>> services = new ConcurrentHashMap<>();
+
+    public DirectoryServer() throws RemoteException {
+        super();
+    }
+
+    @Override
+    public void register(String service, String url, long ttlMs) throws RemoteException {
+        Entry previous = services.computeIfAbsent(service, s -> new ConcurrentHashMap<>())
+                .put(url, new Entry(ttlMs, System.currentTimeMillis() + ttlMs));
+        if (previous == null) {
+            LOG.log(System.Logger.Level.INFO, "Inscription {0} : {1}", service, url);
+        }
+    }
+
+    @Override
+    public boolean heartbeat(String service, String url) throws RemoteException {
+        Map<String, Entry> members = services.get(service);
+        Entry entry = members == null ? null : members.get(url);
+        if (entry == null || entry.expired(System.currentTimeMillis())) {
+            return false;
+        }
+        members.put(url, new Entry(entry.ttlMs, System.currentTimeMillis() + entry.ttlMs));
+        return true;
+    }
+
+    @Override
+    public void deregister(String service, String url) throws RemoteException {
+        Map<String, Entry> members = services.get(service);
+        if (members != null && members.remove(url) != null) {
+            LOG.log(System.Logger.Level.INFO, "Désinscription {0} : {1}", service, url);
+        }
+    }
+
+    @Override
+    public List<String> lookup(String service) throws RemoteException {
+        Map<String, Entry> members = services.get(service);
+        List<String> urls = new ArrayList<>();
+        if (members == null) {
+            return urls;
+        }
+        long now = System.currentTimeMillis();
+        // Purge des serveurs sans battement au passage
+        members.entrySet().removeIf(e -> e.getValue().expired(now));
+        urls.addAll(members.keySet());
+        urls.sort(null);
+        return urls;
+    }
+
+    private record Entry(long ttlMs, long expiresAt) {
+        boolean expired(long now) {
+            return now > expiresAt;
+        }
+    }
+
+    // -Ddirectory.port (1098)
+    public static void main(String[] args) {
+        int port = Integer.getInteger("directory.port", 1098);
+        try {
+            Registry registry = LocateRegistry.createRegistry(port);
+            registry.rebind("ServiceDirectory", new DirectoryServer());
+        } catch (RemoteException e) {
+            // Port déjà pris ou registre impossible à créer : un processus sans annuaire ne sert à rien
+            LOG.log(System.Logger.Level.ERROR, "Annuaire RMI non démarré sur le port " + port, e);
+            System.exit(1);
+        }
+        LOG.log(System.Logger.Level.INFO, "Annuaire RMI prêt sur le port {0}", String.valueOf(port));
+    }
+}
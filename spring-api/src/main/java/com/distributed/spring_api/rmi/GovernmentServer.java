@@ -6,33 +6,53 @@ import java.rmi.server.UnicastRemoteObject;
 
 public class GovernmentServer extends UnicastRemoteObject implements IVerificationServiceRemote {
 
+    // Détail par appel en DEBUG uniquement : la latence est mesurée côté client (rmi.client.calls)
+    private static final System.Logger LOG = System.getLogger(GovernmentServer.class.getName());
+
     protected GovernmentServer() throws java.rmi.RemoteException {
         super();
     }
 
+    // Export sur un port fixe (0 = anonyme) avec une fabrique de sockets réglée (voir TunedSocketFactory)
+    public GovernmentServer(int port, TunedSocketFactory socketFactory) throws java.rmi.RemoteException {
+        super(port, socketFactory, socketFactory);
+    }
+
     @Override
     public boolean verifierCitoyen(String cin, String permis) throws java.rmi.RemoteException {
-        System.out.println("--- 🚔 SERVICE POLICE NATIONALE (RMI) ---");
-        System.out.println("Vérification CIN: " + cin + " / Permis: " + permis);
-
         // Simulation de la base de données police
-        if (cin.startsWith("B")) { // Exemple : Les CIN commençant par 'B' sont Blacklistés
-            System.out.println("⛔ CITOYEN BLACKLISTÉ (Incident signalé).");
-            return false;
-        } else {
-            System.out.println("✅ CITOYEN CLEAN. Autorisation accordée.");
-            return true;
-        }
+        boolean clean = !cin.startsWith("B"); // Exemple : Les CIN commençant par 'B' sont Blacklistés
+        LOG.log(System.Logger.Level.DEBUG, "Vérification CIN {0} : {1}", cin, clean ? "CLEAN" : "BLACKLISTÉ");
+        return clean;
     }
 
+    /**
+     * Réglages par propriétés système (valeurs par défaut entre parenthèses) :
+     * -Drmi.police.port (1100), -Drmi.police.object-port (0), -Drmi.police.bind-address,
+     * -Drmi.police.tcp-no-delay (true), -Drmi.police.keep-alive (true),
+     * -Drmi.police.send-buffer / receive-buffer (0 = système), -Drmi.police.compression (false),
+     * -Ddirectory.url pour s'inscrire dans l'annuaire (voir DirectoryRegistration).
+     */
     public static void main(String[] args) {
         try {
-            // Attention : On utilise le PORT 1100 pour ne pas gêner la Banque (1099)
-            Registry registry = LocateRegistry.createRegistry(1100);
-            registry.rebind("PoliceService", new GovernmentServer());
-            System.out.println("🚓 Serveur RMI (Police) prêt sur le port 1100...");
+            int port = Integer.getInteger("rmi.police.port", 1100);
+            int objectPort = Integer.getInteger("rmi.police.object-port", 0);
+            String bindAddress = System.getProperty("rmi.police.bind-address");
+            if (bindAddress != null && System.getProperty("java.rmi.server.hostname") == null) {
+                // Adresse annoncée dans les stubs = adresse d'écoute
+                System.setProperty("java.rmi.server.hostname", bindAddress);
+            }
+            TunedSocketFactory socketFactory = TunedSocketFactory.fromSystemProperties("rmi.police");
+
+            // Le registre reste joignable par Naming.lookup (sockets client standard, jamais compressées)
+            Registry registry = LocateRegistry.createRegistry(port, null, socketFactory.withoutCompression());
+            registry.rebind("PoliceService", new GovernmentServer(objectPort, socketFactory));
+            // Annuaire (-Ddirectory.url) : spring-api découvre ce serveur sans configuration
+            DirectoryRegistration.start("police", port, "PoliceService");
+            System.out.println("🚓 Serveur RMI (Police) prêt sur le port " + port
+                    + (socketFactory.isCompression() ? " (compression activée)" : "") + "...");
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+}
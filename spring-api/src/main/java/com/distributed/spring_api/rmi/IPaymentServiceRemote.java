@@ -2,9 +2,17 @@ package com.distributed.spring_api.rmi;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 // Cette interface doit être EXACTEMENT la même côté Spring Boot et côté Serveur RMI
 public interface IPaymentServiceRemote extends Remote {
     // Méthode distante : retourne VRAI si le paiement est accepté
     boolean processPayment(String cardNumber, double amount) throws RemoteException;
+
+    // Idem avec un identifiant de transaction : une demande répétée reçoit la même décision
+    boolean processPayment(String transactionId, String cardNumber, double amount) throws RemoteException;
+
+    // Autorise un lot de paiements en un seul aller-retour : un résultat par paiement, dans le même ordre
+    // (PaymentRequest.getTransactionId() déduplique comme processPayment)
+    boolean[] processPayments(List<PaymentRequest> payments) throws RemoteException;
 }
\ No newline at end of file
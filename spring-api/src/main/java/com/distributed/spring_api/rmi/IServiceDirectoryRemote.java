@@ -0,0 +1,20 @@
+package com.distributed.spring_api.rmi;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+
+// Annuaire des serveurs RMI : les serveurs s'inscrivent et envoient des battements, spring-api consulte
+public interface IServiceDirectoryRemote extends Remote {
+
+    // Inscrit (ou renouvelle) un serveur ; il disparaît de l'annuaire sans battement pendant ttlMs
+    void register(String service, String url, long ttlMs) throws RemoteException;
+
+    // Battement de cœur : faux si l'annuaire ne connaît plus ce serveur (redémarré, expiré) -> se réinscrire
+    boolean heartbeat(String service, String url) throws RemoteException;
+
+    void deregister(String service, String url) throws RemoteException;
+
+    // URLs vivantes d'un service (ex. "payment" -> rmi://h1:1099/PaymentService, ...)
+    List<String> lookup(String service) throws RemoteException;
+}
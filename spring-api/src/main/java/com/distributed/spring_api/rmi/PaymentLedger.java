@@ -0,0 +1,418 @@
+package com.distributed.spring_api.rmi;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Journal des autorisations de la banque : fichier binaire en ajout seul,
+ * projeté en mémoire par fenêtres de windowBytes (FileChannel.map). Chaque
+ * décision est écrite avant d'être renvoyée au client ; une demande répétée
+ * avec le même identifiant de transaction reçoit la décision déjà journalisée,
+ * sans nouvelle autorisation (rejeu après délai côté spring-api, outbox reprise).
+ *
+ * Écritures durables par lots (group commit) : les appelants écrivent dans la
+ * projection puis attendent ; un seul thread force (msync) tout ce qui a été
+ * écrit depuis le dernier passage. Un fsync couvre ainsi tous les paiements
+ * arrivés pendant le précédent.
+ *
+ * Au démarrage, le fichier est relu en séquence pour reconstruire l'index
+ * transaction -> décision ; la lecture s'arrête au premier enregistrement
+ * incomplet ou corrompu (écriture interrompue par un arrêt brutal).
+ *
+ * Format : en-tête (MAGIC, VERSION, taille de fenêtre), puis enregistrements
+ * [longueur int][crc32 int][horodatage long][montant double][accepté byte]
+ * [longueur id short][id UTF-8][longueur carte byte][4 derniers chiffres].
+ * Un enregistrement ne chevauche jamais deux fenêtres : SKIP renvoie à la suivante.
+ */
+public class PaymentLedger implements AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(PaymentLedger.class.getName());
+
+    private static final int MAGIC = 0x50414c47; // "PALG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int SKIP = -1;
+    private static final int MAX_ID_BYTES = 256;
+
+    // Règle d'autorisation appliquée aux transactions inconnues du journal
+    @FunctionalInterface
+    public interface Authorizer {
+        boolean authorize(String cardNumber, double amount);
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    // Taille fixée à la création du fichier (en-tête) : les frontières de fenêtre ne bougent jamais
+    private int windowBytes;
+    private final boolean fsync;
+
+    // transaction -> (position de fin << 1) | accepté ; la position sert à attendre la durabilité
+    private final Map<String, Long> index = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingWrites = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long written;
+    private long durable;
+    private long entries;
+    private volatile long fsyncs;
+    private boolean closed;
+    private final Thread flusher;
+
+    private PaymentLedger(Path path, int windowBytes, boolean fsync) throws IOException {
+        this.path = path;
+        this.windowBytes = windowBytes;
+        this.fsync = fsync;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.flusher = new Thread(this::flushLoop, "payment-ledger-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Ouvre (ou crée) le journal et le relit. windowBytes : taille d'une fenêtre
+     * projetée (ignorée pour un journal existant) ; fsync = false pour ne compter
+     * que sur le cache du système (tests, mesures).
+     */
+    public static PaymentLedger open(Path path, int windowBytes, boolean fsync) throws IOException {
+        if (windowBytes < 64 * 1024) {
+            throw new IllegalArgumentException("Fenêtre du journal trop petite : " + windowBytes);
+        }
+        PaymentLedger ledger = new PaymentLedger(path, windowBytes, fsync);
+        try {
+            ledger.replay();
+        } catch (IOException | RuntimeException e) {
+            ledger.channel.close();
+            throw e;
+        }
+        if (fsync) {
+            ledger.flusher.start();
+        }
+        return ledger;
+    }
+
+    private void replay() throws IOException {
+        long start = System.nanoTime();
+        long size = channel.size();
+        long pos = HEADER_BYTES;
+        if (size < HEADER_BYTES) {
+            mapWindow(0);
+            window.putInt(0, MAGIC);
+            window.putInt(4, VERSION);
+            window.putInt(8, windowBytes);
+            window.force(0, HEADER_BYTES);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Journal de paiements invalide : " + path);
+            }
+            windowBytes = header.getInt(8);
+            mapWindow(0);
+            byte[] payload = new byte[16 + 8 + 1 + 2 + MAX_ID_BYTES + 1 + 4];
+            while (true) {
+                if (remaining(pos) < 4) {
+                    pos = nextWindow(pos);
+                }
+                if (pos >= size) {
+                    break;
+                }
+                moveTo(pos);
+                int offset = (int) (pos - windowStart);
+                int length = window.getInt(offset);
+                if (length == SKIP) {
+                    pos = nextWindow(pos);
+                    continue;
+                }
+                if (length <= 4 || length - 4 > payload.length || length + 4 > remaining(pos)) {
+                    break; // fin du journal (zéros) ou écriture interrompue
+                }
+                int expectedCrc = window.getInt(offset + 4);
+                window.get(offset + 8, payload, 0, length - 4);
+                crc.reset();
+                crc.update(payload, 0, length - 4);
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                pos += 4 + length;
+                index(payload, pos);
+            }
+        }
+        written = pos;
+        durable = pos;
+        moveTo(pos);
+        LOG.log(System.Logger.Level.INFO, "Journal de paiements {0} : {1} autorisations relues en {2} ms",
+                path, entries, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Entrée relue : seul l'identifiant et la décision vont dans l'index
+    private void index(byte[] payload, long end) {
+        ByteBuffer record = ByteBuffer.wrap(payload);
+        record.position(16);
+        boolean accepted = record.get() != 0;
+        int idLength = record.getShort();
+        if (idLength > 0) {
+            String transactionId = new String(payload, record.position(), idLength, StandardCharsets.UTF_8);
+            index.put(transactionId, end << 1 | (accepted ? 1 : 0));
+        }
+        entries++;
+    }
+
+    /**
+     * Décision pour une transaction : celle du journal si l'identifiant est
+     * connu, sinon authorizer est appliqué et la décision journalisée. Ne rend
+     * la main qu'une fois la décision durable. transactionId null : pas de
+     * déduplication, la décision est seulement journalisée.
+     */
+    public boolean decide(String transactionId, String cardNumber, double amount, Authorizer authorizer)
+            throws IOException {
+        long entry;
+        lock.lock();
+        try {
+            entry = decideLocked(transactionId, cardNumber, amount, authorizer);
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(entry >>> 1);
+        return (entry & 1) != 0;
+    }
+
+    // Lot : une seule prise du verrou et une seule attente de durabilité
+    public boolean[] decideAll(List<PaymentRequest> payments, Authorizer authorizer) throws IOException {
+        boolean[] results = new boolean[payments.size()];
+        long end = 0;
+        lock.lock();
+        try {
+            for (int i = 0; i < results.length; i++) {
+                PaymentRequest p = payments.get(i);
+                long entry = decideLocked(p.getTransactionId(), p.getCardNumber(), p.getAmount(), authorizer);
+                results[i] = (entry & 1) != 0;
+                end = Math.max(end, entry >>> 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(end);
+        return results;
+    }
+
+    private long decideLocked(String transactionId, String cardNumber, double amount, Authorizer authorizer)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Journal de paiements fermé");
+        }
+        if (transactionId != null) {
+            Long known = index.get(transactionId);
+            if (known != null) {
+                return known;
+            }
+        }
+        boolean accepted = authorizer.authorize(cardNumber, amount);
+        long end = append(transactionId, cardNumber, amount, accepted);
+        long entry = end << 1 | (accepted ? 1 : 0);
+        if (transactionId != null) {
+            index.put(transactionId, entry);
+        }
+        entries++;
+        pendingWrites.signal();
+        return entry;
+    }
+
+    private long append(String transactionId, String cardNumber, double amount, boolean accepted) throws IOException {
+        byte[] id = transactionId == null ? new byte[0] : transactionId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ID_BYTES) {
+            throw new IOException("Identifiant de transaction trop long (" + id.length + " octets)");
+        }
+        byte[] card = lastDigits(cardNumber);
+        int payloadLength = 8 + 8 + 1 + 2 + id.length + 1 + card.length;
+        int recordLength = 8 + payloadLength;
+
+        if (remaining(written) < recordLength) {
+            if (remaining(written) >= 4) {
+                window.putInt((int) (written - windowStart), SKIP);
+            }
+            written = nextWindow(written);
+            rotate(written);
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        payload.putLong(System.currentTimeMillis());
+        payload.putDouble(amount);
+        payload.put((byte) (accepted ? 1 : 0));
+        payload.putShort((short) id.length);
+        payload.put(id);
+        payload.put((byte) card.length);
+        payload.put(card);
+        crc.reset();
+        crc.update(payload.array(), 0, payloadLength);
+
+        int offset = (int) (written - windowStart);
+        // Le contenu d'abord, la longueur en dernier : un enregistrement à moitié écrit se lit comme la fin du journal
+        window.putInt(offset + 4, (int) crc.getValue());
+        window.put(offset + 8, payload.array(), 0, payloadLength);
+        window.putInt(offset, 4 + payloadLength);
+        written += recordLength;
+        return written;
+    }
+
+    // Fenêtre pleine : la précédente est forcée en entier avant de passer à la suivante
+    private void rotate(long pos) throws IOException {
+        if (fsync) {
+            window.force();
+        }
+        moveTo(pos);
+    }
+
+    private void awaitDurable(long end) throws IOException {
+        if (!fsync) {
+            return; // écrit dans la projection : le système l'écrira sur disque
+        }
+        lock.lock();
+        try {
+            while (durable < end) {
+                if (closed && !flusher.isAlive()) {
+                    throw new IOException("Journal de paiements fermé avant l'écriture durable");
+                }
+                durableAdvanced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Attente du journal de paiements interrompue");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Group commit : un msync pour tout ce qui a été écrit depuis le passage précédent
+    private void flushLoop() {
+        long flushed = durable;
+        while (true) {
+            MappedByteBuffer target;
+            long targetStart;
+            long upTo;
+            lock.lock();
+            try {
+                while (written == durable && !closed) {
+                    pendingWrites.awaitUninterruptibly();
+                }
+                if (written == durable) {
+                    return; // fermé, tout est durable
+                }
+                target = window;
+                targetStart = windowStart;
+                upTo = written;
+            } finally {
+                lock.unlock();
+            }
+
+            // Les fenêtres précédentes ont été forcées par rotate()
+            long from = Math.max(flushed, targetStart);
+            target.force((int) (from - targetStart), (int) (upTo - from));
+            fsyncs++;
+            flushed = upTo;
+
+            lock.lock();
+            try {
+                durable = upTo;
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void moveTo(long pos) throws IOException {
+        long start = pos - pos % windowBytes;
+        if (window == null || start != windowStart) {
+            mapWindow(start);
+        }
+    }
+
+    private void mapWindow(long start) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_WRITE, start, windowBytes);
+        windowStart = start;
+    }
+
+    private long remaining(long pos) {
+        return windowBytes - pos % windowBytes;
+    }
+
+    private long nextWindow(long pos) {
+        return pos - pos % windowBytes + windowBytes;
+    }
+
+    private static byte[] lastDigits(String cardNumber) {
+        if (cardNumber == null) {
+            return new byte[0];
+        }
+        String suffix = cardNumber.length() <= 4 ? cardNumber : cardNumber.substring(cardNumber.length() - 4);
+        return suffix.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Autorisation déjà journalisée : null si la transaction est inconnue
+    public Boolean lookup(String transactionId) {
+        lock.lock();
+        try {
+            Long entry = index.get(transactionId);
+            return entry == null ? null : (entry & 1) != 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEntries() {
+        lock.lock();
+        try {
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Nombre de msync depuis l'ouverture : entries / fsyncs = taille moyenne d'un lot
+    public long getFsyncs() {
+        return fsyncs;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingWrites.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (fsync) {
+            window.force();
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.distributed.spring_api.rmi;
+
+import java.io.Serializable;
+
+// Une demande d'autorisation dans un lot (voir IPaymentServiceRemote.processPayments)
+public class PaymentRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Identifiant de transaction (facultatif) : une demande rejouée reçoit la décision journalisée
+    private final String transactionId;
+    private final String cardNumber;
+    private final double amount;
+
+    public PaymentRequest(String cardNumber, double amount) {
+        this(null, cardNumber, amount);
+    }
+
+    public PaymentRequest(String transactionId, String cardNumber, double amount) {
+        this.transactionId = transactionId;
+        this.cardNumber = cardNumber;
+        this.amount = amount;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+}
@@ -1,39 +1,140 @@
 package com.distributed.spring_api.rmi; // Gardez le même package pour simplifier
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
 
 public class PaymentServer extends UnicastRemoteObject implements IPaymentServiceRemote {
 
-    protected PaymentServer() throws java.rmi.RemoteException {
+    // Détail par appel en DEBUG uniquement : la latence est mesurée côté client (rmi.client.calls)
+    private static final System.Logger LOG = System.getLogger(PaymentServer.class.getName());
+
+    // Journal des décisions ; null = aucune trace ni déduplication
+    private final PaymentLedger ledger;
+
+    public PaymentServer() throws java.rmi.RemoteException {
         super();
+        this.ledger = null;
+    }
+
+    // Export sur un port fixe (0 = anonyme) avec une fabrique de sockets réglée (voir TunedSocketFactory)
+    public PaymentServer(int port, TunedSocketFactory socketFactory) throws java.rmi.RemoteException {
+        this(port, socketFactory, null);
+    }
+
+    public PaymentServer(int port, TunedSocketFactory socketFactory, PaymentLedger ledger)
+            throws java.rmi.RemoteException {
+        super(port, socketFactory, socketFactory);
+        this.ledger = ledger;
     }
 
     @Override
     public boolean processPayment(String cardNumber, double amount) throws java.rmi.RemoteException {
-        System.out.println("--- 🏦 BANQUE DISTANTE (RMI) ---");
-        System.out.println("Demande reçue pour la carte : " + cardNumber);
-        System.out.println("Montant à débiter : " + amount + " MAD");
-
-        // Logique métier de la banque
-        if (amount < 50000) { // Plafond fictif
-            System.out.println("✅ Paiement VALIDÉ.");
-            return true;
+        return processPayment(null, cardNumber, amount);
+    }
+
+    @Override
+    public boolean processPayment(String transactionId, String cardNumber, double amount)
+            throws java.rmi.RemoteException {
+        boolean accepted;
+        if (ledger == null) {
+            accepted = authorize(cardNumber, amount);
+        } else {
+            try {
+                accepted = ledger.decide(transactionId, cardNumber, amount, this::authorize);
+            } catch (IOException e) {
+                throw new RemoteException("Journal de paiements indisponible", e);
+            }
+        }
+        LOG.log(System.Logger.Level.DEBUG, "Paiement {0} MAD : {1}", amount, accepted ? "VALIDÉ" : "REFUSÉ");
+        return accepted;
+    }
+
+    @Override
+    public boolean[] processPayments(List<PaymentRequest> payments) throws java.rmi.RemoteException {
+        boolean[] results;
+        if (ledger == null) {
+            results = new boolean[payments.size()];
+            for (int i = 0; i < results.length; i++) {
+                PaymentRequest p = payments.get(i);
+                results[i] = authorize(p.getCardNumber(), p.getAmount());
+            }
         } else {
-            System.out.println("❌ Paiement REFUSÉ (Solde insuffisant).");
-            return false;
+            try {
+                // Tout le lot attend un seul fsync
+                results = ledger.decideAll(payments, this::authorize);
+            } catch (IOException e) {
+                throw new RemoteException("Journal de paiements indisponible", e);
+            }
         }
+        int accepted = 0;
+        for (boolean result : results) {
+            if (result) accepted++;
+        }
+        LOG.log(System.Logger.Level.DEBUG, "Lot de {0} paiements : {1} validés", results.length, accepted);
+        return results;
+    }
+
+    // Logique métier de la banque
+    private boolean authorize(String cardNumber, double amount) {
+        return amount < 50000; // Plafond fictif
     }
 
+    /**
+     * Réglages par propriétés système (valeurs par défaut entre parenthèses) :
+     * -Drmi.payment.port (1099), -Drmi.payment.object-port (0), -Drmi.payment.bind-address,
+     * -Drmi.payment.tcp-no-delay (true), -Drmi.payment.keep-alive (true),
+     * -Drmi.payment.send-buffer / receive-buffer (0 = système), -Drmi.payment.compression (false),
+     * -Ddirectory.url pour s'inscrire dans l'annuaire (voir DirectoryRegistration),
+     * -Dpayment.ledger.enabled (true), -Dpayment.ledger.path (payment-ledger.bin),
+     * -Dpayment.ledger.fsync (true), -Dpayment.ledger.window-mb (64) pour le journal
+     * des autorisations (voir PaymentLedger).
+     */
     public static void main(String[] args) {
         try {
-            // Démarrage du registre RMI sur le port 1099
-            Registry registry = LocateRegistry.createRegistry(1099);
-            registry.rebind("PaymentService", new PaymentServer());
-            System.out.println("🚀 Serveur RMI (Banque) prêt et en écoute sur le port 1099...");
+            int port = Integer.getInteger("rmi.payment.port", 1099);
+            int objectPort = Integer.getInteger("rmi.payment.object-port", 0);
+            String bindAddress = System.getProperty("rmi.payment.bind-address");
+            if (bindAddress != null && System.getProperty("java.rmi.server.hostname") == null) {
+                // Adresse annoncée dans les stubs = adresse d'écoute
+                System.setProperty("java.rmi.server.hostname", bindAddress);
+            }
+            TunedSocketFactory socketFactory = TunedSocketFactory.fromSystemProperties("rmi.payment");
+
+            // Le registre reste joignable par Naming.lookup (sockets client standard, jamais compressées)
+            PaymentLedger ledger = openLedger();
+
+            Registry registry = LocateRegistry.createRegistry(port, null, socketFactory.withoutCompression());
+            registry.rebind("PaymentService", new PaymentServer(objectPort, socketFactory, ledger));
+            // Annuaire (-Ddirectory.url) : spring-api découvre ce serveur sans configuration
+            DirectoryRegistration.start("payment", port, "PaymentService");
+            System.out.println("🚀 Serveur RMI (Banque) prêt et en écoute sur le port " + port
+                    + (socketFactory.isCompression() ? " (compression activée)" : "") + "...");
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    // Relu avant l'enregistrement : aucune demande n'est servie sur un index incomplet
+    private static PaymentLedger openLedger() throws IOException {
+        if (!Boolean.parseBoolean(System.getProperty("payment.ledger.enabled", "true"))) {
+            return null;
+        }
+        PaymentLedger ledger = PaymentLedger.open(
+                Path.of(System.getProperty("payment.ledger.path", "payment-ledger.bin")),
+                Integer.getInteger("payment.ledger.window-mb", 64) * 1024 * 1024,
+                Boolean.parseBoolean(System.getProperty("payment.ledger.fsync", "true")));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                ledger.close();
+            } catch (IOException e) {
+                LOG.log(System.Logger.Level.WARNING, "Fermeture du journal de paiements : {0}", e.getMessage());
+            }
+        }, "payment-ledger-close"));
+        return ledger;
+    }
+}
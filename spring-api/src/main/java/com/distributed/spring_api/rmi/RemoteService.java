@@ -0,0 +1,36 @@
+package com.distributed.spring_api.rmi;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.Set;
+
+// Service distant appelable de façon synchrone : un serveur (RmiServiceClient) ou plusieurs (RmiServiceCluster)
+public interface RemoteService<T extends Remote> {
+
+    <R> R call(String method, RmiCall<T, R> call) throws RemoteException;
+
+    // Appel épinglé : la même clé va au même serveur tant qu'il est joignable (un seul serveur ici)
+    default <R> R call(String method, String affinityKey, RmiCall<T, R> call) throws RemoteException {
+        return call(method, call);
+    }
+
+    // Appel qui évite les serveurs déjà dans visited et y ajoute chaque serveur essayé (requêtes couvertes)
+    default <R> R callAvoiding(String method, Set<String> visited, RmiCall<T, R> call) throws RemoteException {
+        visited.add(getName());
+        return call(method, call);
+    }
+
+    // Serveur attitré d'une clé, pour regrouper les appels épinglés par serveur
+    default String ownerOf(String affinityKey) {
+        return getName();
+    }
+
+    String getName();
+
+    UnavailablePolicy getUnavailablePolicy();
+
+    // Nombre de serveurs distincts joignables par call (1 pour un client simple)
+    default int replicaCount() {
+        return 1;
+    }
+}
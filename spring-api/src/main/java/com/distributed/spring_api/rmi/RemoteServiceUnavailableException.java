@@ -0,0 +1,15 @@
+package com.distributed.spring_api.rmi;
+
+import java.rmi.RemoteException;
+
+// Levée sans appel réseau quand le circuit est ouvert, ou quand le délai de l'appel est dépassé
+public class RemoteServiceUnavailableException extends RemoteException {
+
+    public RemoteServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public RemoteServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
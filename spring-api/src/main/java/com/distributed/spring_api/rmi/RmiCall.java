@@ -0,0 +1,10 @@
+package com.distributed.spring_api.rmi;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+// Un appel distant exécuté sur un stub déjà résolu (voir RmiServiceClient)
+@FunctionalInterface
+public interface RmiCall<T extends Remote, R> {
+    R call(T stub) throws RemoteException;
+}
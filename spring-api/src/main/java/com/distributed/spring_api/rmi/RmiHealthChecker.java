@@ -0,0 +1,27 @@
+package com.distributed.spring_api.rmi;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Vérifie périodiquement que les stubs RMI en cache pointent toujours vers un serveur vivant,
+// et réintègre dans leur cluster les nœuds écartés qui répondent de nouveau
+@Component
+public class RmiHealthChecker {
+
+    @Autowired
+    private List<RmiServiceCluster<?>> clusters;
+
+    @Scheduled(fixedDelayString = "${rmi.health-check-interval-ms:30000}")
+    public void checkAll() {
+        for (RmiServiceCluster<?> cluster : clusters) {
+            cluster.probe();
+        }
+    }
+
+    public List<RmiServiceCluster<?>> getClusters() {
+        return clusters;
+    }
+}
@@ -0,0 +1,263 @@
+package com.distributed.spring_api.rmi;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.MalformedURLException;
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.Naming;
+import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client RMI géré : le stub est résolu une seule fois via Naming.lookup puis
+ * gardé en cache. Une nouvelle résolution n'a lieu qu'après une RemoteException
+ * (ou lors du contrôle de santé périodique, voir RmiHealthChecker).
+ *
+ * Chaque appel a une échéance (callTimeoutMs) et passe par un disjoncteur :
+ * tant que le serveur est en panne, les appels échouent immédiatement avec
+ * RemoteServiceUnavailableException, et l'appelant applique l'UnavailablePolicy.
+ *
+ * Métriques : timer rmi.client.calls (service, method, outcome) et jauges
+ * rmi.circuit.state (0 = CLOSED, 1 = OPEN, 2 = HALF_OPEN) et rmi.client.healthy.
+ */
+public class RmiServiceClient<T extends Remote> implements RemoteService<T> {
+
+    // Threads virtuels : attendre une échéance ne coûte pas de thread plateforme
+    private static final ExecutorService CALL_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String name;
+    private final String url;
+    private final Class<T> type;
+    private final long callTimeoutMs;
+    private final CircuitBreaker circuitBreaker;
+    private final UnavailablePolicy unavailablePolicy;
+    private final MeterRegistry meterRegistry;
+
+    private volatile T stub;
+    private volatile boolean healthy = true;
+
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong reconnectCount = new AtomicLong();
+    private final AtomicLong failedLookupCount = new AtomicLong();
+
+    public RmiServiceClient(String name, String url, Class<T> type) {
+        this(name, url, type, 5000, new CircuitBreaker(5, 10000), UnavailablePolicy.FAIL_CLOSED);
+    }
+
+    public RmiServiceClient(String name, String url, Class<T> type, long callTimeoutMs,
+                            CircuitBreaker circuitBreaker, UnavailablePolicy unavailablePolicy) {
+        this(name, url, type, callTimeoutMs, circuitBreaker, unavailablePolicy, Metrics.globalRegistry);
+    }
+
+    public RmiServiceClient(String name, String url, Class<T> type, long callTimeoutMs,
+                            CircuitBreaker circuitBreaker, UnavailablePolicy unavailablePolicy,
+                            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.url = url;
+        this.type = type;
+        this.callTimeoutMs = callTimeoutMs;
+        this.circuitBreaker = circuitBreaker;
+        this.unavailablePolicy = unavailablePolicy;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("rmi.circuit.state", this, c -> c.getCircuitState().ordinal())
+                .tag("service", name)
+                .register(meterRegistry);
+        Gauge.builder("rmi.client.healthy", this, c -> c.isHealthy() ? 1 : 0)
+                .tag("service", name)
+                .register(meterRegistry);
+    }
+
+    public <R> R call(RmiCall<T, R> call) throws RemoteException {
+        return call("call", call);
+    }
+
+    /**
+     * Exécute l'appel avec une échéance. Échoue immédiatement si le circuit est
+     * ouvert ; en HALF_OPEN, cet appel sert de sonde pour refermer le circuit.
+     */
+    @Override
+    public <R> R call(String method, RmiCall<T, R> call) throws RemoteException {
+        if (!circuitBreaker.allowRequest()) {
+            record(method, "circuit_open", 0);
+            throw new CircuitOpenException("Service " + name + " indisponible (circuit ouvert)");
+        }
+        long start = System.nanoTime();
+        Future<R> future = CALL_EXECUTOR.submit(() -> invoke(call));
+        try {
+            R result = future.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            record(method, "success", start);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            record(method, "timeout", start);
+            throw new RemoteServiceUnavailableException(
+                    "Service " + name + " : pas de réponse après " + callTimeoutMs + " ms");
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            record(method, "error", start);
+            if (e.getCause() instanceof RemoteException re) {
+                throw re;
+            }
+            throw new RemoteException("Erreur d'appel au service " + name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            record(method, "interrupted", start);
+            throw new RemoteServiceUnavailableException("Appel au service " + name + " interrompu", e);
+        }
+    }
+
+    // Un refus par circuit ouvert est compté avec une durée nulle
+    private void record(String method, String outcome, long startNanos) {
+        Timer.builder("rmi.client.calls")
+                .tag("service", name)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(startNanos == 0 ? 0 : System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Exécute un appel sur le stub en cache. Si le stub est périmé (serveur
+     * redémarré, connexion refusée), on le résout de nouveau et on rejoue
+     * l'appel une seule fois : ces erreurs garantissent que la requête n'a pas
+     * atteint le serveur, donc le rejeu ne peut pas débiter deux fois.
+     */
+    private <R> R invoke(RmiCall<T, R> call) throws RemoteException {
+        T current = getStub();
+        try {
+            R result = call.call(current);
+            healthy = true;
+            return result;
+        } catch (ConnectException | ConnectIOException | NoSuchObjectException e) {
+            invalidate(current);
+            T fresh = reconnect();
+            R result = call.call(fresh);
+            healthy = true;
+            return result;
+        } catch (RemoteException e) {
+            invalidate(current);
+            throw e;
+        }
+    }
+
+    public T getStub() throws RemoteException {
+        T current = stub;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (stub == null) {
+                stub = lookup();
+            }
+            return stub;
+        }
+    }
+
+    /**
+     * Contrôle de santé : on interroge le registre et on remplace le stub en
+     * cache s'il ne désigne plus le même objet distant (serveur redémarré).
+     */
+    public void checkHealth() {
+        try {
+            T fresh = lookup();
+            synchronized (this) {
+                if (stub != null && !stub.equals(fresh)) {
+                    reconnectCount.incrementAndGet();
+                }
+                stub = fresh;
+            }
+        } catch (RemoteException e) {
+            synchronized (this) {
+                stub = null;
+            }
+        }
+    }
+
+    private T reconnect() throws RemoteException {
+        synchronized (this) {
+            stub = lookup();
+            reconnectCount.incrementAndGet();
+            return stub;
+        }
+    }
+
+    private synchronized void invalidate(T failed) {
+        healthy = false;
+        if (stub == failed) {
+            stub = null;
+        }
+    }
+
+    private T lookup() throws RemoteException {
+        lookupCount.incrementAndGet();
+        try {
+            Remote remote = Naming.lookup(url);
+            healthy = true;
+            return type.cast(remote);
+        } catch (RemoteException e) {
+            failLookup();
+            throw e;
+        } catch (NotBoundException | MalformedURLException | ClassCastException e) {
+            failLookup();
+            throw new RemoteException("Service " + name + " introuvable à " + url, e);
+        }
+    }
+
+    private void failLookup() {
+        failedLookupCount.incrementAndGet();
+        healthy = false;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public UnavailablePolicy getUnavailablePolicy() {
+        return unavailablePolicy;
+    }
+
+    public long getLookupCount() {
+        return lookupCount.get();
+    }
+
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+
+    public long getFailedLookupCount() {
+        return failedLookupCount.get();
+    }
+}
@@ -0,0 +1,295 @@
+package com.distributed.spring_api.rmi;
+
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Répartition de charge côté client entre plusieurs serveurs RMI du même
+ * service (ex. plusieurs PaymentServer). Chaque nœud est un RmiServiceClient
+ * avec son propre stub, son échéance et son disjoncteur.
+ *
+ * - ROUND_ROBIN : les nœuds disponibles à tour de rôle
+ * - LEAST_OUTSTANDING : le nœud qui a le moins d'appels en cours
+ *
+ * Un nœud est écarté dès qu'une connexion échoue (ou tant que son circuit est
+ * ouvert) ; le contrôle de santé périodique (probe) le réintègre quand son
+ * registre répond de nouveau. Un appel n'est rejoué sur un autre nœud que si
+ * l'erreur garantit qu'il n'a pas atteint le premier (pas de double débit).
+ *
+ * Appel épinglé (clé d'affinité, ex. identifiant de transaction bancaire) : la
+ * stratégie est ignorée, les nœuds sont classés par hachage de rendez-vous
+ * (clé, url) et le premier disponible est choisi. Une même clé retombe donc
+ * sur le même nœud d'un envoi à l'autre, tant que ce nœud reste joignable et
+ * membre du cluster ; ajouter ou retirer un nœud ne déplace que ses clés.
+ *
+ * Requête couverte (callAvoiding) : les nœuds déjà essayés par la tentative
+ * principale sont exclus, quelle que soit la stratégie ; s'il n'en reste
+ * aucun, la couverture échoue sans appel.
+ */
+public class RmiServiceCluster<T extends Remote> implements RemoteService<T> {
+
+    public enum Strategy { ROUND_ROBIN, LEAST_OUTSTANDING }
+
+    private final String name;
+    private final Strategy strategy;
+    private final UnavailablePolicy unavailablePolicy;
+    private final Function<String, RmiServiceClient<T>> clientFactory;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<Node<T>> nodes;
+
+    public RmiServiceCluster(String name, List<String> urls, Strategy strategy, UnavailablePolicy unavailablePolicy,
+                             Function<String, RmiServiceClient<T>> clientFactory) {
+        this.name = name;
+        this.strategy = strategy;
+        this.unavailablePolicy = unavailablePolicy;
+        this.clientFactory = clientFactory;
+        List<Node<T>> initial = new ArrayList<>();
+        for (String url : urls) {
+            if (!url.isBlank()) {
+                initial.add(new Node<>(clientFactory.apply(url.trim())));
+            }
+        }
+        this.nodes = List.copyOf(initial);
+    }
+
+    @Override
+    public <R> R call(String method, RmiCall<T, R> call) throws RemoteException {
+        return invoke(method, null, null, call);
+    }
+
+    @Override
+    public <R> R call(String method, String affinityKey, RmiCall<T, R> call) throws RemoteException {
+        return invoke(method, affinityKey, null, call);
+    }
+
+    @Override
+    public <R> R callAvoiding(String method, Set<String> visited, RmiCall<T, R> call) throws RemoteException {
+        return invoke(method, null, visited, call);
+    }
+
+    @Override
+    public String ownerOf(String affinityKey) {
+        Node<T> owner = pick(nodes, Set.of(), affinityKey);
+        return owner == null ? name : owner.client.getUrl();
+    }
+
+    private <R> R invoke(String method, String affinityKey, Set<String> visited, RmiCall<T, R> call)
+            throws RemoteException {
+        List<Node<T>> current = nodes;
+        Set<Node<T>> tried = new HashSet<>();
+        if (visited != null) {
+            for (Node<T> node : current) {
+                if (visited.contains(node.client.getUrl())) {
+                    tried.add(node);
+                }
+            }
+        }
+        RemoteException last = null;
+        for (int attempt = 0; attempt < current.size(); attempt++) {
+            Node<T> node = pick(current, tried, affinityKey);
+            if (node == null) {
+                break;
+            }
+            tried.add(node);
+            if (visited != null) {
+                visited.add(node.client.getUrl());
+            }
+            node.outstanding.incrementAndGet();
+            try {
+                R result = node.client.call(method, call);
+                node.calls.incrementAndGet();
+                return result;
+            } catch (RemoteException e) {
+                node.failures.incrementAndGet();
+                last = e;
+                if (!neverReached(e)) {
+                    throw e; // la requête a pu être traitée : pas de rejeu
+                }
+                if (!(e instanceof CircuitOpenException)) {
+                    node.ejected = true;
+                }
+            } finally {
+                node.outstanding.decrementAndGet();
+            }
+        }
+        if (last != null) {
+            throw last;
+        }
+        if (!tried.isEmpty()) {
+            throw new RemoteServiceUnavailableException("Service " + name + " : aucun autre nœud disponible");
+        }
+        throw new RemoteServiceUnavailableException("Service " + name + " : aucun nœud configuré");
+    }
+
+    /**
+     * Nœud suivant selon la stratégie, parmi ceux non essayés, non écartés et
+     * dont le circuit n'est pas ouvert. Si tous sont écartés, on tente quand
+     * même les autres plutôt que d'échouer sans essayer (mode dégradé).
+     * Avec une clé d'affinité, le meilleur score de rendez-vous l'emporte.
+     */
+    private Node<T> pick(List<Node<T>> current, Set<Node<T>> tried, String affinityKey) {
+        List<Node<T>> available = new ArrayList<>(current.size());
+        for (Node<T> node : current) {
+            if (!tried.contains(node) && !node.ejected && node.client.getCircuitState() != CircuitBreaker.State.OPEN) {
+                available.add(node);
+            }
+        }
+        if (available.isEmpty()) {
+            for (Node<T> node : current) {
+                if (!tried.contains(node)) {
+                    available.add(node);
+                }
+            }
+        }
+        if (available.isEmpty()) {
+            return null;
+        }
+        if (affinityKey != null) {
+            Node<T> owner = null;
+            for (Node<T> node : available) {
+                if (owner == null || score(affinityKey, node) > score(affinityKey, owner)) {
+                    owner = node;
+                }
+            }
+            return owner;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), available.size());
+        if (strategy == Strategy.ROUND_ROBIN) {
+            return available.get(start);
+        }
+        // Moins d'appels en cours ; à égalité, on part d'un nœud différent à chaque fois
+        Node<T> best = null;
+        for (int i = 0; i < available.size(); i++) {
+            Node<T> node = available.get((start + i) % available.size());
+            if (best == null || node.outstanding.get() < best.outstanding.get()) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    // Hachage de rendez-vous : mélange (finaliseur murmur3) de la clé et de l'url du nœud
+    private static int score(String affinityKey, Node<?> node) {
+        int h = affinityKey.hashCode() * 31 + node.client.getUrl().hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // Erreurs levées avant que la requête n'atteigne le serveur
+    private static boolean neverReached(RemoteException e) {
+        return e instanceof CircuitOpenException
+                || e instanceof ConnectException
+                || e instanceof ConnectIOException
+                || e instanceof NoSuchObjectException
+                || e.getCause() instanceof NotBoundException;
+    }
+
+    /**
+     * Nouvelle liste de membres (annuaire, voir ServiceDirectoryWatcher) : les
+     * nœuds déjà connus gardent leur stub, leurs compteurs et leur disjoncteur,
+     * les nouveaux sont créés, les absents retirés. Les appels en cours sur
+     * l'ancienne liste se terminent normalement.
+     */
+    public synchronized boolean updateMembers(List<String> urls) {
+        Map<String, Node<T>> known = new HashMap<>();
+        for (Node<T> node : nodes) {
+            known.put(node.client.getUrl(), node);
+        }
+        List<Node<T>> updated = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String url : urls) {
+            String u = url.trim();
+            if (u.isEmpty() || !seen.add(u)) {
+                continue;
+            }
+            Node<T> node = known.get(u);
+            updated.add(node != null ? node : new Node<>(clientFactory.apply(u)));
+        }
+        if (seen.equals(known.keySet())) {
+            return false;
+        }
+        nodes = List.copyOf(updated);
+        return true;
+    }
+
+    // Sonde de santé (RmiHealthChecker) : nouvelle résolution du stub, réintégration si le registre répond
+    public void probe() {
+        for (Node<T> node : nodes) {
+            node.client.checkHealth();
+            node.ejected = !node.client.isHealthy();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public UnavailablePolicy getUnavailablePolicy() {
+        return unavailablePolicy;
+    }
+
+    @Override
+    public int replicaCount() {
+        return nodes.size();
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public List<Node<T>> getNodes() {
+        return nodes;
+    }
+
+    public static class Node<T extends Remote> {
+        private final RmiServiceClient<T> client;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile boolean ejected;
+
+        Node(RmiServiceClient<T> client) {
+            this.client = client;
+        }
+
+        public RmiServiceClient<T> getClient() {
+            return client;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        public long getCalls() {
+            return calls.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public boolean isEjected() {
+            return ejected;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.distributed.spring_api.rmi;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.rmi.RemoteException;
+import java.util.List;
+
+/**
+ * Abonnement à l'annuaire (rmi.directory.url) : toutes les rmi.directory.poll-ms,
+ * la liste des serveurs vivants de chaque cluster est relue et appliquée sans
+ * redémarrage. Une nouvelle capacité est donc utilisée en quelques secondes.
+ *
+ * Les appels métier ne consultent jamais l'annuaire. Si l'annuaire est
+ * injoignable ou ne connaît aucun serveur, le cluster garde ses membres actuels.
+ */
+@Component
+@ConditionalOnProperty(name = "rmi.directory.url")
+public class ServiceDirectoryWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceDirectoryWatcher.class);
+
+    @Autowired
+    private List<RmiServiceCluster<?>> clusters;
+
+    private final RmiServiceClient<IServiceDirectoryRemote> directory;
+
+    public ServiceDirectoryWatcher(@Value("${rmi.directory.url}") String url,
+                                   @Value("${rmi.directory.timeout-ms:1000}") long timeoutMs) {
+        this.directory = new RmiServiceClient<>("directory", url, IServiceDirectoryRemote.class,
+                timeoutMs, new CircuitBreaker(3, 5000), UnavailablePolicy.FAIL_OPEN);
+    }
+
+    @Scheduled(fixedDelayString = "${rmi.directory.poll-ms:2000}")
+    public void refresh() {
+        for (RmiServiceCluster<?> cluster : clusters) {
+            try {
+                List<String> urls = directory.call("lookup", d -> d.lookup(cluster.getName()));
+                if (urls.isEmpty()) {
+                    continue;
+                }
+                if (cluster.updateMembers(urls)) {
+                    log.info("Cluster {} : {} serveur(s) {}", cluster.getName(), urls.size(), urls);
+                }
+            } catch (RemoteException e) {
+                log.debug("Annuaire injoignable, membres de {} inchangés : {}", cluster.getName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.distributed.spring_api.rmi;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMISocketFactory;
+
+// Fabrique de sockets RMI par défaut de la JVM cliente : impose un délai de connexion
+public class TimeoutSocketFactory extends RMISocketFactory {
+
+    private final int connectTimeoutMs;
+
+    public TimeoutSocketFactory(int connectTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+        return socket;
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        return new ServerSocket(port);
+    }
+}
@@ -0,0 +1,172 @@
+package com.distributed.spring_api.rmi;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Fabrique de sockets RMI réglable, utilisée à l'export de PaymentServer et
+ * GovernmentServer. Le stub emporte la fabrique (sérialisée) : le client
+ * applique donc les mêmes options sans configuration.
+ *
+ * - TCP_NODELAY : les petits appels (un paiement) ne subissent pas Nagle
+ * - keep-alive, tailles de tampons, délai de connexion
+ * - compression Deflate optionnelle (utile pour les lots processPayments)
+ * - adresse d'écoute côté serveur
+ *
+ * equals/hashCode sont indispensables : RMI réutilise une connexion ouverte
+ * seulement si la fabrique du stub est égale à celle de la connexion.
+ */
+public class TunedSocketFactory implements RMIClientSocketFactory, RMIServerSocketFactory, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean tcpNoDelay;
+    private final boolean keepAlive;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+    private final int connectTimeoutMs;
+    private final boolean compression;
+    // Côté serveur uniquement : inutile (et non transmis) au client
+    private final transient String bindAddress;
+
+    public TunedSocketFactory(boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize,
+                              int connectTimeoutMs, boolean compression, String bindAddress) {
+        this.tcpNoDelay = tcpNoDelay;
+        this.keepAlive = keepAlive;
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.compression = compression;
+        this.bindAddress = bindAddress;
+    }
+
+    /**
+     * Réglages lus dans les propriétés système, préfixe par serveur
+     * (ex. -Drmi.payment.tcp-no-delay=true -Drmi.payment.compression=true).
+     * Tailles de tampon à 0 = valeur du système.
+     */
+    public static TunedSocketFactory fromSystemProperties(String prefix) {
+        return new TunedSocketFactory(
+                Boolean.parseBoolean(System.getProperty(prefix + ".tcp-no-delay", "true")),
+                Boolean.parseBoolean(System.getProperty(prefix + ".keep-alive", "true")),
+                Integer.getInteger(prefix + ".send-buffer", 0),
+                Integer.getInteger(prefix + ".receive-buffer", 0),
+                Integer.getInteger(prefix + ".connect-timeout-ms", 2000),
+                Boolean.parseBoolean(System.getProperty(prefix + ".compression", "false")),
+                System.getProperty(prefix + ".bind-address"));
+    }
+
+    // Même réglage sans compression : pour le registre, que Naming.lookup contacte avec des sockets standard
+    public TunedSocketFactory withoutCompression() {
+        return new TunedSocketFactory(tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize,
+                connectTimeoutMs, false, bindAddress);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        Socket socket = compression ? new CompressedSocket() : new Socket();
+        configure(socket);
+        socket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+        return socket;
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        ServerSocket server = new ServerSocket() {
+            @Override
+            public Socket accept() throws IOException {
+                Socket socket = compression ? new CompressedSocket() : new Socket();
+                implAccept(socket);
+                configure(socket);
+                return socket;
+            }
+        };
+        if (receiveBufferSize > 0) {
+            server.setReceiveBufferSize(receiveBufferSize);
+        }
+        InetAddress address = bindAddress == null || bindAddress.isBlank() ? null : InetAddress.getByName(bindAddress);
+        server.bind(new InetSocketAddress(address, port));
+        return server;
+    }
+
+    private void configure(Socket socket) throws IOException {
+        socket.setTcpNoDelay(tcpNoDelay);
+        socket.setKeepAlive(keepAlive);
+        if (sendBufferSize > 0) {
+            socket.setSendBufferSize(sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            socket.setReceiveBufferSize(receiveBufferSize);
+        }
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TunedSocketFactory that)) return false;
+        return tcpNoDelay == that.tcpNoDelay && keepAlive == that.keepAlive
+                && sendBufferSize == that.sendBufferSize && receiveBufferSize == that.receiveBufferSize
+                && connectTimeoutMs == that.connectTimeoutMs && compression == that.compression;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize, connectTimeoutMs, compression);
+    }
+
+    /**
+     * Socket dont les flux sont compressés. SYNC_FLUSH : chaque flush de RMI
+     * (fin d'appel ou de réponse) envoie immédiatement les octets compressés,
+     * sinon l'appel attendrait que le tampon du Deflater se remplisse.
+     */
+    private static class CompressedSocket extends Socket {
+
+        private InputStream in;
+        private OutputStream out;
+
+        @Override
+        public synchronized InputStream getInputStream() throws IOException {
+            if (in == null) {
+                in = new InflaterInputStream(super.getInputStream());
+            }
+            return in;
+        }
+
+        @Override
+        public synchronized OutputStream getOutputStream() throws IOException {
+            if (out == null) {
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                out = new BufferedOutputStream(new DeflaterOutputStream(super.getOutputStream(), deflater, true));
+            }
+            return out;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                if (out != null) {
+                    out.flush();
+                }
+            } finally {
+                super.close();
+            }
+        }
+    }
+}
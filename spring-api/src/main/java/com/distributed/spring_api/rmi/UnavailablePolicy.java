@@ -0,0 +1,15 @@
+package com.distributed.spring_api.rmi;
+
+// Décision à prendre quand un service distant ne répond pas (panne, délai dépassé, circuit ouvert)
+public enum UnavailablePolicy {
+
+    // Mode dégradé : on laisse passer (ex. vérification police)
+    FAIL_OPEN,
+
+    // Mode sécurisé : on refuse (ex. paiement bancaire)
+    FAIL_CLOSED;
+
+    public boolean allows() {
+        return this == FAIL_OPEN;
+    }
+}
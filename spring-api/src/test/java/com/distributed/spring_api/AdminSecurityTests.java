@@ -0,0 +1,66 @@
+package com.distributed.spring_api;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /api/admin/** (caches, export des paiements) : refusé sans le compte d'administration (admin.password)
+@SpringBootTest
+class AdminSecurityTests {
+
+    @Autowired private WebApplicationContext context;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        Filter security = context.getBean("springSecurityFilterChain", Filter.class);
+        mvc = MockMvcBuilders.webAppContextSetup(context).addFilters(security).build();
+    }
+
+    @Test
+    void adminEndpointsRequireTheAdminAccount() throws Exception {
+        mvc.perform(get("/api/admin/verification-cache/stats")).andExpect(status().isUnauthorized());
+        mvc.perform(delete("/api/admin/verification-cache")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/admin/verification-cache/stats").header(HttpHeaders.AUTHORIZATION, basic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        mvc.perform(get("/api/admin/verification-cache/stats").header(HttpHeaders.AUTHORIZATION, basic("admin", "test-admin")))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/api/admin/verification-cache").header(HttpHeaders.AUTHORIZATION, basic("admin", "test-admin")))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void paymentExportRequiresTheAdminAccount() throws Exception {
+        mvc.perform(get("/api/admin/paiements/export")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/admin/paiements/export").header(HttpHeaders.AUTHORIZATION, basic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+        // Ancienne adresse publique : plus d'export sous /api/paiements
+        mvc.perform(get("/api/paiements/export")).andExpect(status().isNotFound());
+
+        mvc.perform(get("/api/admin/paiements/export").param("format", "csv")
+                        .header(HttpHeaders.AUTHORIZATION, basic("admin", "test-admin")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"paiements.csv\""));
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,108 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.Service.IdempotencyService;
+import com.distributed.spring_api.dto.ReservationRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /api/reservations avec Idempotency-Key : rejeu, conflit, reprise d'une clé expirée ou d'un bail dépassé
+@SpringBootTest
+class IdempotencyTests {
+
+    @Autowired private WebApplicationContext context;
+    @Autowired private IdempotencyService idempotencyService;
+    @Autowired private TestData data;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private JsonMapper jsonMapper;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void retryReplaysTheFirstResponse() throws Exception {
+        String key = "key-" + System.nanoTime();
+        ReservationRequest request = request(LocalDate.now().plusDays(5));
+
+        String location = send(key, request).andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        send(key, request).andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, location))
+                .andExpect(header().string(IdempotencyService.HEADER + "-Replayed", "true"));
+        assertEquals(1, reservationsOf(request));
+
+        send(key, request(LocalDate.now().plusDays(5))).andExpect(status().isUnprocessableContent());
+    }
+
+    @Test
+    void expiredKeyNotYetPurgedCanBeReused() throws Exception {
+        String key = "key-" + System.nanoTime();
+        String first = send(key, request(LocalDate.now().plusDays(5))).andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        expire(key);
+
+        // Autre corps : la clé expirée ne compte plus, ni 409 ni 422
+        String second = send(key, request(LocalDate.now().plusDays(8))).andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void claimHeldByADeadNodeIsTakenOverAfterItsLease() throws Exception {
+        String key = "key-" + System.nanoTime();
+        ReservationRequest request = request(LocalDate.now().plusDays(5));
+        assertTrue(idempotencyService.claim(key, idempotencyService.hash(request)));
+
+        send(key, request).andExpect(status().isConflict());
+
+        expire(key);
+        send(key, request).andExpect(status().isAccepted());
+        send(key, request).andExpect(header().string(IdempotencyService.HEADER + "-Replayed", "true"));
+        assertEquals(1, reservationsOf(request));
+    }
+
+    private ResultActions send(String key, ReservationRequest request) throws Exception {
+        return mvc.perform(post("/api/reservations")
+                .header(IdempotencyService.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(request)));
+    }
+
+    private void expire(String key) {
+        jdbc.update("UPDATE idempotency_record SET expires_at = ? WHERE idempotency_key = ?",
+                LocalDateTime.now().minusSeconds(1), key);
+        idempotencyService.getMemory().invalidate(key);
+    }
+
+    private int reservationsOf(ReservationRequest request) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM Reservation WHERE client_id = ?", Integer.class,
+                request.getClientId());
+    }
+
+    private ReservationRequest request(LocalDate debut) {
+        return data.request("idem", data.voiture(), debut);
+    }
+}
@@ -0,0 +1,93 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.rmi.PaymentLedger;
+import com.distributed.spring_api.rmi.PaymentRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Journal des autorisations de PaymentServer : déduplication, relecture, fin de fichier abîmée
+class PaymentLedgerTests {
+
+    private static final int WINDOW_BYTES = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private final AtomicInteger authorizations = new AtomicInteger();
+
+    private boolean authorize(String cardNumber, double amount) {
+        authorizations.incrementAndGet();
+        return amount < 50000;
+    }
+
+    @Test
+    void repeatedTransactionGetsTheLoggedDecision() throws Exception {
+        try (PaymentLedger ledger = PaymentLedger.open(dir.resolve("ledger.bin"), WINDOW_BYTES, true)) {
+            assertTrue(ledger.decide("RES-1", "4111111111111111", 100.0, this::authorize));
+            // Même transaction, montant différent : la première décision fait foi
+            assertTrue(ledger.decide("RES-1", "4111111111111111", 90000.0, this::authorize));
+            assertArrayEquals(new boolean[] {true, false},
+                    ledger.decideAll(List.of(new PaymentRequest("RES-1", "4111", 90000.0),
+                            new PaymentRequest("RES-2", "4111", 90000.0)), this::authorize));
+
+            assertEquals(2, authorizations.get());
+            assertEquals(2, ledger.getEntries());
+        }
+    }
+
+    @Test
+    void replayRebuildsTheIndexAcrossWindows() throws Exception {
+        Path path = dir.resolve("ledger.bin");
+        int count = 5000; // environ 45 octets par entrée : plusieurs fenêtres de 64 Ko
+        try (PaymentLedger ledger = PaymentLedger.open(path, WINDOW_BYTES, false)) {
+            for (int i = 0; i < count; i++) {
+                ledger.decide("RES-" + i, "4111111111111111", i % 2 == 0 ? 100.0 : 90000.0, this::authorize);
+            }
+        }
+
+        try (PaymentLedger ledger = PaymentLedger.open(path, WINDOW_BYTES, false)) {
+            assertEquals(count, ledger.getEntries());
+            assertTrue(ledger.lookup("RES-0"));
+            assertFalse(ledger.lookup("RES-4999"));
+            assertNull(ledger.lookup("RES-5000"));
+            assertFalse(ledger.decide("RES-4999", "4111111111111111", 100.0, this::authorize));
+        }
+        assertEquals(count, authorizations.get());
+    }
+
+    @Test
+    void corruptedTailIsIgnoredAndOverwritten() throws Exception {
+        Path path = dir.resolve("ledger.bin");
+        try (PaymentLedger ledger = PaymentLedger.open(path, WINDOW_BYTES, false)) {
+            ledger.decide("A", "1234", 100.0, this::authorize);
+            ledger.decide("B", "1234", 100.0, this::authorize);
+        }
+        // En-tête (12 octets) + A (33 octets) : un octet du contenu de B est abîmé
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), 12 + 33 + 20);
+        }
+
+        try (PaymentLedger ledger = PaymentLedger.open(path, WINDOW_BYTES, false)) {
+            assertEquals(1, ledger.getEntries());
+            assertNull(ledger.lookup("B"));
+            ledger.decide("C", "1234", 100.0, this::authorize);
+        }
+        try (PaymentLedger ledger = PaymentLedger.open(path, WINDOW_BYTES, false)) {
+            assertEquals(2, ledger.getEntries());
+            assertTrue(ledger.lookup("C"));
+        }
+    }
+}
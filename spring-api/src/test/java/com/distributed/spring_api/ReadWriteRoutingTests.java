@@ -0,0 +1,124 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.datasource.ReadWriteRoutingDataSource;
+import com.distributed.spring_api.datasource.ReadYourWrites;
+import com.distributed.spring_api.datasource.ReplicaLagMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Deux bases H2 embarquées (primaire et réplique) derrière ReadWriteRoutingDataSource
+class ReadWriteRoutingTests {
+
+    private static final long MAX_LAG_MS = 5000;
+
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate routed;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primaryDs = h2("primary");
+        DataSource replicaDs = h2("replica");
+        replica = new JdbcTemplate(replicaDs);
+
+        monitor = new ReplicaLagMonitor(primaryDs, Map.of("replica-0", replicaDs), MAX_LAG_MS);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(monitor);
+        routing.setTargetDataSources(Map.of(ReadWriteRoutingDataSource.PRIMARY, primaryDs, "replica-0", replicaDs));
+        routing.setDefaultTargetDataSource(primaryDs);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        routed = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(txManager);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAFreshReplica() {
+        replicate(System.currentTimeMillis());
+        monitor.refresh();
+
+        assertEquals("replica", readOnlyTx.execute(status -> whoAmI()));
+        assertEquals("primary", writeTx.execute(status -> whoAmI()));
+        assertEquals("primary", whoAmI()); // hors transaction
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicate(System.currentTimeMillis() - 60_000);
+        monitor.refresh();
+        assertEquals("primary", readOnlyTx.execute(status -> whoAmI()));
+
+        // La réplique rattrape son retard : elle est réintégrée
+        replicate(System.currentTimeMillis());
+        monitor.refresh();
+        assertEquals("replica", readOnlyTx.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        replica.execute("DROP TABLE ReplicaHeartbeat");
+        monitor.refresh();
+
+        assertEquals(-1, monitor.getLagMs("replica-0"));
+        assertEquals("primary", readOnlyTx.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void recentWritesAreReadFromPrimary() {
+        replicate(System.currentTimeMillis());
+        monitor.refresh();
+        ReadYourWrites readYourWrites = new ReadYourWrites(5000, 100);
+        readYourWrites.recordWrite("client:7");
+
+        String recent = readOnlyTx.execute(status -> {
+            try (ReadYourWrites.Pin pin = readYourWrites.pinIfRecent("client:7")) {
+                return whoAmI();
+            }
+        });
+        String other = readOnlyTx.execute(status -> {
+            try (ReadYourWrites.Pin pin = readYourWrites.pinIfRecent("client:8")) {
+                return whoAmI();
+            }
+        });
+
+        assertEquals("primary", recent);
+        assertEquals("replica", other);
+        assertFalse(ReadYourWrites.isPinned());
+    }
+
+    private String whoAmI() {
+        return routed.queryForObject("SELECT name FROM WhoAmI", String.class);
+    }
+
+    // Réplication simulée : la réplique voit le battement écrit à 'beatMillis'
+    private void replicate(long beatMillis) {
+        replica.update("MERGE INTO ReplicaHeartbeat (heartbeat_id, beat_millis) KEY (heartbeat_id) VALUES (1, ?)",
+                beatMillis);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE ReplicaHeartbeat (heartbeat_id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        jdbc.execute("CREATE TABLE WhoAmI (name VARCHAR(20))");
+        jdbc.update("INSERT INTO WhoAmI (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,80 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.Service.ReservationService;
+import com.distributed.spring_api.model.Reservation;
+import com.distributed.spring_api.model.Voiture;
+import com.distributed.spring_api.repository.PaiementRepository;
+import com.distributed.spring_api.repository.PaymentOutboxRepository;
+import com.distributed.spring_api.repository.ReservationRepository;
+import com.distributed.spring_api.repository.VoitureReposi;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Annulation par le client : demande de paiement retirée (ou annulation refusée), disponibilite recalculée
+@SpringBootTest
+class ReservationCancellationTests {
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private ReservationRepository reservationRepo;
+    @Autowired private PaiementRepository paiementRepo;
+    @Autowired private PaymentOutboxRepository outboxRepo;
+    @Autowired private VoitureReposi voitureRepo;
+    @Autowired private TestData data;
+
+    @Test
+    void cancellingPendingWithdrawsThePaymentRequest() throws Exception {
+        Reservation reservation = book(LocalDate.now().plusDays(5));
+
+        assertEquals("CANCELLED", reservationService.cancelReservation(reservation.getId()).getStatus());
+        assertFalse(outboxRepo.existsByReservationId(reservation.getId()));
+        assertEquals("FAILED", paiementRepo.findByReservation_Id(reservation.getId()).orElseThrow().getStatut());
+    }
+
+    @Test
+    void cancellingWhileThePaymentIsSentIsRefused() throws Exception {
+        Reservation reservation = book(LocalDate.now().plusDays(5));
+        Long outboxId = outboxRepo.findAll().stream()
+                .filter(o -> o.getReservationId().equals(reservation.getId()))
+                .findFirst().orElseThrow().getId();
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, outboxRepo.claim(List.of(outboxId), "test", now, now.plusMinutes(1)));
+
+        assertThrows(Exception.class, () -> reservationService.cancelReservation(reservation.getId()));
+        assertEquals("PENDING", reservationRepo.findById(reservation.getId()).orElseThrow().getStatus());
+        assertEquals("PENDING", paiementRepo.findByReservation_Id(reservation.getId()).orElseThrow().getStatut());
+        assertTrue(outboxRepo.existsByReservationId(reservation.getId()));
+    }
+
+    @Test
+    void cancellingOneRentalKeepsTheCarHeldForAnother() throws Exception {
+        Voiture voiture = data.voiture();
+        Reservation first = book(voiture, LocalDate.now().plusDays(5));
+        Reservation second = book(voiture, LocalDate.now().plusDays(10));
+        reservationService.applyPaymentResults(List.of(first.getId(), second.getId()), List.of());
+        assertFalse(voitureRepo.findById(voiture.getVoitureId()).orElseThrow().isDisponibilite());
+
+        reservationService.cancelReservation(first.getId());
+        assertFalse(voitureRepo.findById(voiture.getVoitureId()).orElseThrow().isDisponibilite());
+
+        reservationService.cancelReservation(second.getId());
+        assertTrue(voitureRepo.findById(voiture.getVoitureId()).orElseThrow().isDisponibilite());
+    }
+
+    private Reservation book(LocalDate debut) throws Exception {
+        return book(data.voiture(), debut);
+    }
+
+    private Reservation book(Voiture voiture, LocalDate debut) throws Exception {
+        return reservationService.createReservation(data.request("cancel", voiture, debut));
+    }
+}
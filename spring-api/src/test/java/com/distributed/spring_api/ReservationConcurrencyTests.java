@@ -0,0 +1,115 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.Service.ReservationService;
+import com.distributed.spring_api.model.User;
+import com.distributed.spring_api.model.Voiture;
+import com.distributed.spring_api.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Réservations concurrentes : aucune double réservation, et pas de contention entre voitures différentes
+@SpringBootTest
+class ReservationConcurrencyTests {
+
+    private static final int THREADS = 16;
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private ReservationRepository reservationRepo;
+    @Autowired private TestData data;
+
+    @Test
+    void sameCarSameDatesIsBookedOnlyOnce() throws Exception {
+        User client = data.client("race");
+        Voiture voiture = data.voiture();
+        LocalDate debut = LocalDate.now().plusDays(10);
+
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    reservationService.createReservation(data.request(client, voiture, debut, debut.plusDays(3)));
+                    successes.incrementAndGet();
+                } catch (Exception e) {
+                    // refus attendu : la voiture est déjà prise
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1, successes.get());
+        assertTrue(reservationRepo.existsOverlappingReservation(voiture.getVoitureId(), debut, debut.plusDays(3)));
+        long active = reservationRepo.findActiveIntervals(LocalDate.now()).stream()
+                .filter(row -> (Integer) row[1] == voiture.getVoitureId())
+                .count();
+        assertEquals(1, active);
+    }
+
+    @Test
+    void differentCarsDoNotContend() throws Exception {
+        int bookingsPerThread = 20;
+        User client = data.client("throughput");
+        List<Voiture> voitures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            voitures.add(data.voiture());
+        }
+        LocalDate base = LocalDate.now().plusDays(30);
+
+        AtomicInteger successes = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Voiture voiture : voitures) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < bookingsPerThread; i++) {
+                    // Périodes disjointes sur la même voiture : [3i, 3i+2]
+                    LocalDate debut = base.plusDays(3L * i);
+                    reservationService.createReservation(data.request(client, voiture, debut, debut.plusDays(2)));
+                    successes.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(120, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Aucun refus, et pour chaque voiture exactement ses réservations, sans chevauchement
+        assertEquals(THREADS * bookingsPerThread, successes.get());
+        for (Voiture voiture : voitures) {
+            List<Object[]> periods = new ArrayList<>(
+                    reservationRepo.findActiveIntervalsByVoiture(voiture.getVoitureId(), LocalDate.now()));
+            assertEquals(bookingsPerThread, periods.size());
+            periods.sort(Comparator.comparing(row -> (LocalDate) row[2]));
+            for (int i = 1; i < periods.size(); i++) {
+                assertTrue(((LocalDate) periods.get(i - 1)[3]).isBefore((LocalDate) periods.get(i)[2]));
+            }
+        }
+    }
+}
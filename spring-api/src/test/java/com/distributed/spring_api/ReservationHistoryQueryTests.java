@@ -0,0 +1,129 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.Service.PaiementService;
+import com.distributed.spring_api.Service.ReservationService;
+import com.distributed.spring_api.dto.ReservationHistoryPage;
+import com.distributed.spring_api.model.Paiement;
+import com.distributed.spring_api.model.Reservation;
+import com.distributed.spring_api.model.User;
+import com.distributed.spring_api.model.Voiture;
+import com.distributed.spring_api.repository.PaiementRepository;
+import com.distributed.spring_api.repository.ReservationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Historique et paiements : une seule requête SQL par appel, quel que soit le nombre de lignes ; curseur illisible = 400
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReservationHistoryQueryTests {
+
+    private static final int RESERVATIONS = 12;
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private PaiementService paiementService;
+    @Autowired private ReservationRepository reservationRepo;
+    @Autowired private PaiementRepository paiementRepo;
+    @Autowired private TestData data;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private User client;
+    private final List<Reservation> reservations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        client = data.client("history");
+
+        reservations.clear();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            // Une voiture différente par réservation : un N+1 se verrait immédiatement
+            Voiture voiture = data.voiture("Renault");
+
+            Reservation r = new Reservation();
+            r.setClient(client);
+            r.setVoiture(voiture);
+            r.setDateDebut(LocalDate.now().plusDays(i * 5L));
+            r.setDateFin(LocalDate.now().plusDays(i * 5L + 2));
+            r.setTotal(500.0);
+            r.setStatus("CONFIRMED");
+            r = reservationRepo.save(r);
+            reservations.add(r);
+
+            Paiement p = new Paiement();
+            p.setReservation(r);
+            p.setMontant(500.0);
+            p.setStatut("PAID");
+            paiementRepo.save(p);
+        }
+    }
+
+    @Test
+    void historyPageIsOneStatement() {
+        Statistics stats = statistics();
+        stats.clear();
+
+        ReservationHistoryPage page = reservationService.getReservationHistory(client.getId(), null, 5);
+
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(5, page.getItems().size());
+        assertEquals("PAID", page.getItems().get(0).getPaymentStatus());
+        assertNotNull(page.getItems().get(0).getVoiture().getMarque());
+        assertNotNull(page.getNext());
+    }
+
+    @Test
+    void cursorWalksWholeHistoryOneStatementPerPage() {
+        Statistics stats = statistics();
+        stats.clear();
+
+        int pages = 0;
+        int rows = 0;
+        String before = null;
+        do {
+            ReservationHistoryPage page = reservationService.getReservationHistory(client.getId(), before, 5);
+            rows += page.getItems().size();
+            before = page.getNext();
+            pages++;
+        } while (before != null);
+
+        assertEquals(RESERVATIONS, rows);
+        assertEquals(pages, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> reservationService.getReservationHistory(client.getId(), "abc", 5));
+        assertEquals(400, e.getStatusCode().value());
+    }
+
+    @Test
+    void paymentLookupsAreOneStatement() {
+        Statistics stats = statistics();
+        stats.clear();
+
+        assertNotNull(paiementService.getPaiementByReservationId(reservations.get(0).getId()));
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        stats.clear();
+        assertNull(paiementService.getPaiementByReservationId(-1L));
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,58 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.Service.ReservationIntervalIndex;
+import com.distributed.spring_api.Service.ReservationService;
+import com.distributed.spring_api.model.Reservation;
+import com.distributed.spring_api.model.Voiture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// L'index en mémoire n'est qu'un indice : une période libérée ailleurs ne bloque pas la voiture
+@SpringBootTest
+class ReservationIntervalIndexTests {
+
+    @Autowired private ReservationService reservationService;
+    @Autowired private ReservationIntervalIndex intervalIndex;
+    @Autowired private TestData data;
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void periodReleasedOnAnotherNodeCanBeBookedAgain() throws Exception {
+        Voiture voiture = data.voiture();
+        LocalDate debut = LocalDate.now().plusDays(20);
+        Reservation first = reservationService.createReservation(data.request("index", voiture, debut));
+        assertThrows(Exception.class,
+                () -> reservationService.createReservation(data.request("index", voiture, debut)));
+
+        // Annulation faite par un autre nœud : l'index de celui-ci garde la période
+        jdbc.update("UPDATE Reservation SET status = 'CANCELLED' WHERE reservation_id = ?", first.getId());
+        assertTrue(intervalIndex.overlaps(voiture.getVoitureId(), debut, debut.plusDays(2)));
+
+        assertNotNull(reservationService.createReservation(data.request("index", voiture, debut)).getId());
+    }
+
+    @Test
+    void pastPeriodsArePruned() {
+        int voitureId = data.voiture().getVoitureId();
+        LocalDate today = LocalDate.now();
+        int before = intervalIndex.size();
+        intervalIndex.add(voitureId, -1L, today.minusDays(10), today.minusDays(5));
+        intervalIndex.add(voitureId, -2L, today.minusDays(3), today.plusDays(1));
+
+        intervalIndex.prune();
+
+        assertEquals(before + 1, intervalIndex.size());
+        assertFalse(intervalIndex.overlaps(voitureId, today.minusDays(8), today.minusDays(6)));
+        assertTrue(intervalIndex.overlaps(voitureId, today, today));
+    }
+}
@@ -0,0 +1,210 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.rmi.CircuitBreaker;
+import com.distributed.spring_api.rmi.IPaymentServiceRemote;
+import com.distributed.spring_api.rmi.PaymentServer;
+import com.distributed.spring_api.rmi.RemoteServiceUnavailableException;
+import com.distributed.spring_api.rmi.RmiServiceClient;
+import com.distributed.spring_api.rmi.RmiServiceCluster;
+import com.distributed.spring_api.rmi.UnavailablePolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Plusieurs PaymentServer locaux (un registre par port) derrière un seul RmiServiceCluster
+class RmiServiceClusterTests {
+
+    private static final int NODES = 3;
+
+    private final int[] ports = new int[NODES];
+    private final Registry[] registries = new Registry[NODES];
+    private final PaymentServer[] servers = new PaymentServer[NODES];
+
+    @BeforeEach
+    void startServers() throws Exception {
+        for (int i = 0; i < NODES; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports[i] = socket.getLocalPort();
+            }
+            start(i);
+        }
+    }
+
+    @AfterEach
+    void stopServers() throws Exception {
+        for (int i = 0; i < NODES; i++) {
+            stop(i);
+        }
+    }
+
+    @Test
+    void roundRobinSpreadsCallsEvenly() throws Exception {
+        RmiServiceCluster<IPaymentServiceRemote> cluster = cluster(RmiServiceCluster.Strategy.ROUND_ROBIN);
+
+        for (int i = 0; i < NODES * 10; i++) {
+            boolean accepted = cluster.call("processPayment", banque -> banque.processPayment("CARD-1", 100.0));
+            assertTrue(accepted);
+        }
+
+        for (RmiServiceCluster.Node<IPaymentServiceRemote> node : cluster.getNodes()) {
+            assertEquals(10, node.getCalls());
+        }
+    }
+
+    @Test
+    void leastOutstandingUsesEveryNodeUnderConcurrency() throws Exception {
+        RmiServiceCluster<IPaymentServiceRemote> cluster = cluster(RmiServiceCluster.Strategy.LEAST_OUTSTANDING);
+
+        ExecutorService pool = Executors.newFixedThreadPool(12);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            results.add(pool.submit(() -> cluster.call("processPayment", banque -> banque.processPayment("CARD-1", 100.0))));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        long total = 0;
+        for (RmiServiceCluster.Node<IPaymentServiceRemote> node : cluster.getNodes()) {
+            assertTrue(node.getCalls() > 0);
+            total += node.getCalls();
+        }
+        assertEquals(120, total);
+    }
+
+    @Test
+    void deadNodeIsEjectedThenReinstatedByProbe() throws Exception {
+        RmiServiceCluster<IPaymentServiceRemote> cluster = cluster(RmiServiceCluster.Strategy.ROUND_ROBIN);
+        RmiServiceCluster.Node<IPaymentServiceRemote> victim = cluster.getNodes().get(1);
+        cluster.call("processPayment", banque -> banque.processPayment("CARD-1", 100.0)); // stubs en cache
+        cluster.call("processPayment", banque -> banque.processPayment("CARD-1", 100.0));
+
+        stop(1);
+        for (int i = 0; i < 30; i++) {
+            // Aucun appel perdu : bascule vers un nœud vivant
+            boolean accepted = cluster.call("processPayment", banque -> banque.processPayment("CARD-1", 100.0));
+            assertTrue(accepted);
+        }
+        assertTrue(victim.isEjected());
+        long callsWhileDown = victim.getCalls();
+
+        cluster.probe();
+        assertTrue(victim.isEjected()); // registre toujours arrêté
+
+        start(1);
+        cluster.probe();
+        assertFalse(victim.isEjected());
+        for (int i = 0; i < 30; i++) {
+            cluster.call("processPayment", banque -> banque.processPayment("CARD-1", 100.0));
+        }
+        assertTrue(victim.getCalls() > callsWhileDown);
+    }
+
+    @Test
+    void pinnedCallsStayOnTheKeyOwner() throws Exception {
+        RmiServiceCluster<IPaymentServiceRemote> cluster = cluster(RmiServiceCluster.Strategy.LEAST_OUTSTANDING);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            keys.add("RES-" + i + "-1700000000");
+        }
+
+        Map<String, String> owners = new HashMap<>();
+        for (String key : keys) {
+            owners.put(key, cluster.ownerOf(key));
+        }
+        assertEquals(NODES, Set.copyOf(owners.values()).size());
+
+        for (int round = 0; round < 3; round++) {
+            for (String key : keys) {
+                boolean accepted = cluster.call("processPayment", key,
+                        banque -> banque.processPayment(key, "CARD-1", 100.0));
+                assertTrue(accepted);
+            }
+        }
+        for (RmiServiceCluster.Node<IPaymentServiceRemote> node : cluster.getNodes()) {
+            long owned = owners.values().stream().filter(node.getClient().getUrl()::equals).count();
+            assertEquals(3 * owned, node.getCalls());
+        }
+
+        // Serveur attitré arrêté : ses clés basculent, les autres ne bougent pas
+        String victim = cluster.getNodes().get(0).getClient().getUrl();
+        stop(0);
+        for (String key : keys) {
+            boolean accepted = cluster.call("processPayment", key, banque -> banque.processPayment(key, "CARD-1", 100.0));
+            assertTrue(accepted);
+            String owner = cluster.ownerOf(key);
+            assertNotEquals(victim, owner);
+            if (!owners.get(key).equals(victim)) {
+                assertEquals(owners.get(key), owner);
+            }
+        }
+    }
+
+    @Test
+    void hedgeAvoidsNodesAlreadyTried() throws Exception {
+        RmiServiceCluster<IPaymentServiceRemote> cluster = cluster(RmiServiceCluster.Strategy.ROUND_ROBIN);
+        RmiServiceCluster.Node<IPaymentServiceRemote> primary = cluster.getNodes().get(0);
+
+        for (int i = 0; i < NODES * 10; i++) {
+            Set<String> visited = new HashSet<>(Set.of(primary.getClient().getUrl()));
+            boolean accepted = cluster.callAvoiding("processPayment", visited,
+                    banque -> banque.processPayment("CARD-1", 100.0));
+            assertTrue(accepted);
+            assertEquals(2, visited.size());
+        }
+        assertEquals(0, primary.getCalls());
+
+        // Tous les nœuds déjà essayés : la couverture échoue sans appel
+        Set<String> all = new HashSet<>();
+        cluster.getNodes().forEach(node -> all.add(node.getClient().getUrl()));
+        assertThrows(RemoteServiceUnavailableException.class, () -> cluster.callAvoiding("processPayment", all,
+                banque -> banque.processPayment("CARD-1", 100.0)));
+    }
+
+    private RmiServiceCluster<IPaymentServiceRemote> cluster(RmiServiceCluster.Strategy strategy) {
+        List<String> urls = new ArrayList<>();
+        for (int port : ports) {
+            urls.add("rmi://localhost:" + port + "/PaymentService");
+        }
+        return new RmiServiceCluster<>("payment", urls, strategy, UnavailablePolicy.FAIL_CLOSED,
+                url -> new RmiServiceClient<>("payment@" + url, url, IPaymentServiceRemote.class,
+                        5000, new CircuitBreaker(5, 10000), UnavailablePolicy.FAIL_CLOSED));
+    }
+
+    private void start(int i) throws Exception {
+        registries[i] = LocateRegistry.createRegistry(ports[i]);
+        servers[i] = new PaymentServer();
+        registries[i].rebind("PaymentService", servers[i]);
+    }
+
+    private void stop(int i) throws Exception {
+        if (servers[i] != null) {
+            UnicastRemoteObject.unexportObject(servers[i], true);
+            UnicastRemoteObject.unexportObject(registries[i], true);
+            servers[i] = null;
+            registries[i] = null;
+        }
+    }
+}
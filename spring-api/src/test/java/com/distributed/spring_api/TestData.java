@@ -0,0 +1,57 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.dto.ReservationRequest;
+import com.distributed.spring_api.model.User;
+import com.distributed.spring_api.model.Voiture;
+import com.distributed.spring_api.repository.UserRepository;
+import com.distributed.spring_api.repository.VoitureReposi;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Jeu de données commun aux tests : voitures disponibles, clients à email unique, demandes payées en espèces
+@Component
+public class TestData {
+
+    @Autowired private VoitureReposi voitureRepo;
+    @Autowired private UserRepository userRepo;
+
+    public Voiture voiture() {
+        return voiture("Dacia");
+    }
+
+    public Voiture voiture(String marque) {
+        Voiture voiture = new Voiture();
+        voiture.setMarque(marque);
+        voiture.setModele("Logan");
+        voiture.setPrixParJour(300);
+        voiture.setDisponibilite(true);
+        return voitureRepo.save(voiture);
+    }
+
+    // tag : préfixe de l'email, pour retrouver l'origine d'une ligne en base
+    public User client(String tag) {
+        User user = new User();
+        user.setFullName("Client " + tag);
+        user.setEmail(tag + "-" + System.nanoTime() + "@test.ma");
+        user.setPassword("secret");
+        user.setRole("client");
+        return userRepo.save(user);
+    }
+
+    public ReservationRequest request(User client, Voiture voiture, LocalDate debut, LocalDate fin) {
+        ReservationRequest request = new ReservationRequest();
+        request.setClientId(client.getId());
+        request.setVoitureId(voiture.getVoitureId());
+        request.setStartDate(debut);
+        request.setEndDate(fin);
+        request.setPaymentMethod("cash");
+        return request;
+    }
+
+    // Nouveau client, location de deux jours à partir de debut
+    public ReservationRequest request(String tag, Voiture voiture, LocalDate debut) {
+        return request(client(tag), voiture, debut, debut.plusDays(2));
+    }
+}
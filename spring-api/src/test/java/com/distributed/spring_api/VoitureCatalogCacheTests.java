@@ -0,0 +1,68 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.cache.VoitureCatalogCache;
+import com.distributed.spring_api.dto.VoiturePage;
+import com.distributed.spring_api.model.Voiture;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// Pages du catalogue : modification faite par un autre nœud vue au plus tard après la durée de vie du cache, ETag compris
+class VoitureCatalogCacheTests {
+
+    private static final long TTL_MS = 100;
+
+    @Test
+    void pagesAndETagExpireTogether() throws Exception {
+        VoitureCatalogCache cache = new VoitureCatalogCache(10, TTL_MS);
+        AtomicInteger loads = new AtomicInteger();
+
+        String etag = cache.etag();
+        assertEquals(1, price(cache.getPage("0|20", () -> page(loads.incrementAndGet()))));
+        assertEquals(2, price(cache.getPage("20|20", () -> page(loads.incrementAndGet()))));
+        assertEquals(1, price(cache.getPage("0|20", () -> page(loads.incrementAndGet()))));
+        assertEquals(2, price(cache.getPage("20|20", () -> page(loads.incrementAndGet()))));
+        assertEquals(etag, cache.etag());
+
+        Thread.sleep(TTL_MS + 50);
+
+        // Le premier accès après la durée de vie change l'ETag et vide toutes les pages
+        String expired = cache.etag();
+        assertNotEquals(etag, expired);
+        assertEquals(3, price(cache.getPage("0|20", () -> page(loads.incrementAndGet()))));
+        assertEquals(4, price(cache.getPage("20|20", () -> page(loads.incrementAndGet()))));
+        assertEquals(expired, cache.etag());
+    }
+
+    @Test
+    void invalidationDropsPagesAndChangesETag() {
+        VoitureCatalogCache cache = new VoitureCatalogCache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        String etag = cache.etag();
+        cache.getPage("0|20", () -> page(loads.incrementAndGet()));
+        cache.invalidate();
+
+        assertNotEquals(etag, cache.etag());
+        assertEquals(2, price(cache.getPage("0|20", () -> page(loads.incrementAndGet()))));
+    }
+
+    private static int price(VoiturePage page) {
+        return (int) page.getItems().get(0).getPrixParJour();
+    }
+
+    private static VoiturePage page(int prix) {
+        return new VoiturePage(List.of(voiture(prix)), null);
+    }
+
+    private static Voiture voiture(int prix) {
+        Voiture voiture = new Voiture();
+        voiture.setVoitureId(1);
+        voiture.setPrixParJour(prix);
+        return voiture;
+    }
+}
@@ -0,0 +1,125 @@
+package com.distributed.spring_api;
+
+import com.distributed.spring_api.Service.ReservationService;
+import com.distributed.spring_api.Service.VoitureService;
+import com.distributed.spring_api.dto.VoitureFilter;
+import com.distributed.spring_api.dto.VoiturePage;
+import com.distributed.spring_api.model.Reservation;
+import com.distributed.spring_api.model.User;
+import com.distributed.spring_api.model.Voiture;
+import com.distributed.spring_api.repository.VoitureReposi;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Recherche par dates : cohérente avec POST /api/reservations, exacte sur toutes les pages ; curseur illisible = 400
+// (mesure de latence sur un grand parc : FreeCarSearchBenchmark dans spring-api-benchmarks)
+@SpringBootTest
+class VoitureSearchTests {
+
+    private static final int FLEET = 30;
+
+    @Autowired private VoitureService voitureService;
+    @Autowired private ReservationService reservationService;
+    @Autowired private VoitureReposi voitureRepo;
+    @Autowired private TestData data;
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void carListedAsFreeCanBeBooked() throws Exception {
+        User client = data.client("search");
+        Voiture voiture = data.voiture("Search-" + System.nanoTime());
+
+        // Location payée en cours : disponibilite passe à false
+        LocalDate today = LocalDate.now();
+        Reservation current = reservationService.createReservation(
+                data.request(client, voiture, today, today.plusDays(3)));
+        reservationService.applyPaymentResults(List.of(current.getId()), List.of());
+        assertFalse(voitureRepo.findById(voiture.getVoitureId()).orElseThrow().isDisponibilite());
+
+        VoitureFilter filter = new VoitureFilter();
+        filter.setMarque(voiture.getMarque());
+        LocalDate debut = today.plusDays(10);
+        VoiturePage page = voitureService.searchFree(debut, debut.plusDays(2), filter, null, null);
+        assertTrue(page.getItems().stream().anyMatch(v -> v.getMarque().equals(filter.getMarque())));
+
+        assertNotNull(reservationService.createReservation(
+                data.request(client, voiture, debut, debut.plusDays(2))).getId());
+    }
+
+    // Données annulées à la fin du test : la base partagée par les autres tests reste intacte
+    @Test
+    @Transactional
+    void freeCarSearchSkipsBookedCarsAcrossPages() {
+        User client = data.client("search");
+        String marque = "Fleet-" + System.nanoTime();
+        LocalDate debut = LocalDate.now().plusDays(40);
+
+        // Un tiers loué sur [debut, debut+5] ; un autre tiers n'a qu'une location annulée
+        Set<Integer> free = new HashSet<>();
+        List<Object[]> reservations = new ArrayList<>();
+        for (int i = 0; i < FLEET; i++) {
+            int id = data.voiture(marque).getVoitureId();
+            if (i % 3 == 0) {
+                reservations.add(new Object[] {client.getId(), id, Date.valueOf(debut), Date.valueOf(debut.plusDays(5)),
+                        "CONFIRMED"});
+            } else {
+                free.add(id);
+                if (i % 3 == 1) {
+                    reservations.add(new Object[] {client.getId(), id, Date.valueOf(debut),
+                            Date.valueOf(debut.plusDays(5)), "CANCELLED"});
+                }
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO Reservation (client_id, voiture_id, date_debut, date_fin, status, total) " +
+                "VALUES (?, ?, ?, ?, ?, 1000)", reservations);
+
+        VoitureFilter filter = new VoitureFilter();
+        filter.setMarque(marque);
+        assertEquals(free, searchAllPages(filter, debut.plusDays(2), debut.plusDays(3)));
+        assertEquals(free, searchAllPages(filter, debut.minusDays(2), debut)); // chevauche le premier jour
+        assertEquals(FLEET, searchAllPages(filter, debut.plusDays(6), debut.plusDays(8)).size());
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        VoitureFilter filter = new VoitureFilter();
+        LocalDate debut = LocalDate.now().plusDays(1);
+        ResponseStatusException page = assertThrows(ResponseStatusException.class,
+                () -> voitureService.getPage(filter, null, "12abc", null));
+        ResponseStatusException free = assertThrows(ResponseStatusException.class,
+                () -> voitureService.searchFree(debut, debut.plusDays(2), filter, "' OR 1=1", null));
+        assertEquals(400, page.getStatusCode().value());
+        assertEquals(400, free.getStatusCode().value());
+    }
+
+    // Parcourt toutes les pages (7 voitures par page) et vérifie qu'aucune voiture n'apparaît deux fois
+    private Set<Integer> searchAllPages(VoitureFilter filter, LocalDate debut, LocalDate fin) {
+        Set<Integer> ids = new HashSet<>();
+        String after = null;
+        do {
+            VoiturePage page = voitureService.searchFree(debut, fin, filter, after, 7);
+            for (Voiture voiture : page.getItems()) {
+                assertTrue(ids.add(voiture.getVoitureId()));
+            }
+            after = page.getNext();
+        } while (after != null);
+        return ids;
+    }
+}
@@ -0,0 +1,36 @@
+package com.distributed.spring_api.loadtest;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latence et pannes simulées pour les serveurs RMI de substitution :
+ * latence fixe + gigue aléatoire, puis échec avec une probabilité donnée.
+ */
+public class FaultInjection {
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+
+    public FaultInjection(long latencyMs, long jitterMs, double failureRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+    }
+
+    public void apply(String service) throws RemoteException {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RemoteException(service + " : appel interrompu");
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new RemoteException(service + " : panne simulée");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.distributed.spring_api.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latences d'un endpoint (en microsecondes), séparées par classe de réponse
+ * (2xx, 4xx, 5xx, io) : un refus rapide ne fait pas baisser les percentiles
+ * des réponses réussies. Compteurs d'erreurs par statut HTTP ou exception.
+ */
+public class LatencyRecorder {
+
+    private final String endpoint;
+    private final Map<String, Samples> byOutcome = new TreeMap<>();
+    private final AtomicLong errors = new AtomicLong();
+    private final Map<String, Long> errorsByCause = new TreeMap<>();
+
+    public LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public synchronized void record(String outcome, long micros) {
+        byOutcome.computeIfAbsent(outcome, o -> new Samples()).add(micros);
+    }
+
+    public synchronized void error(String cause) {
+        errors.incrementAndGet();
+        errorsByCause.merge(cause, 1L, Long::sum);
+    }
+
+    /**
+     * Résumé : requêtes et débit sur la durée du test, puis, par classe de
+     * réponse, nombre de requêtes et percentiles p50/p99/p999 (ms).
+     */
+    public synchronized Map<String, Object> summary(double seconds) {
+        int requests = 0;
+        Map<String, Object> outcomes = new LinkedHashMap<>();
+        for (Map.Entry<String, Samples> entry : byOutcome.entrySet()) {
+            Samples samples = entry.getValue();
+            requests += samples.count;
+            outcomes.put(entry.getKey(), samples.summary());
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", endpoint);
+        summary.put("requests", requests);
+        summary.put("throughput_per_s", Math.round(requests / seconds * 10) / 10.0);
+        summary.put("by_outcome", outcomes);
+        summary.put("errors", errors.get());
+        summary.put("errors_by_cause", new TreeMap<>(errorsByCause));
+        return summary;
+    }
+
+    private static class Samples {
+        private long[] values = new long[4096];
+        private int count;
+
+        void add(long micros) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = micros;
+        }
+
+        Map<String, Object> summary() {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", count);
+            summary.put("p50_ms", percentile(sorted, 0.50));
+            summary.put("p99_ms", percentile(sorted, 0.99));
+            summary.put("p999_ms", percentile(sorted, 0.999));
+            summary.put("max_ms", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1000.0);
+            return summary;
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+}
@@ -0,0 +1,12 @@
+package com.distributed.spring_api.loadtest;
+
+import com.distributed.spring_api.SpringApiApplication;
+import org.springframework.boot.SpringApplication;
+
+// Point d'entrée de mvn -Ploadtest spring-boot:test-run : l'application, plus le pilote et les serveurs simulés
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(SpringApiApplication::main).withAdditionalProfiles("loadtest").run(args);
+    }
+}
@@ -0,0 +1,254 @@
+package com.distributed.spring_api.loadtest;
+
+import com.distributed.spring_api.model.Voiture;
+import com.distributed.spring_api.repository.VoitureReposi;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Profil loadtest : une fois l'application prête, lance des sessions client
+ * (inscription, connexion, catalogue, réservation) à débit fixe pendant une
+ * durée donnée, puis écrit le rapport par endpoint (débit, p50/p99/p999, erreurs).
+ *
+ * Boucle ouverte : chaque session part à son heure prévue, même si les
+ * précédentes ne sont pas finies. La latence de l'inscription est mesurée depuis
+ * l'heure prévue, pour ne pas masquer l'attente quand le serveur sature.
+ *
+ * Chaque session réserve sa propre voiture (au moins une voiture par session
+ * est créée au départ) : un 4xx sur la réservation vient du serveur, pas d'un
+ * conflit fabriqué par le pilote. Les latences 2xx et 4xx sont rapportées à part.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDriver {
+
+    @Autowired private VoitureReposi voitureRepo;
+    @Autowired private JsonMapper jsonMapper;
+    @Autowired private Environment environment;
+    @Autowired private ConfigurableApplicationContext context;
+
+    @Value("${loadtest.rate-per-second:50}")
+    private double ratePerSecond;
+
+    @Value("${loadtest.duration-s:60}")
+    private int durationSeconds;
+
+    // Taille minimale du catalogue ; portée au nombre de sessions si besoin
+    @Value("${loadtest.voitures:200}")
+    private int voitureCount;
+
+    // Part des CIN commençant par 'B' (refusés par la Police, 403 attendu)
+    @Value("${loadtest.blacklisted-rate:0.02}")
+    private double blacklistedRate;
+
+    @Value("${loadtest.report-file:target/loadtest-report.json}")
+    private String reportFile;
+
+    @Value("${loadtest.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final AtomicLong sessionCounter = new AtomicLong();
+    private List<Integer> voitureIds;
+    private String baseUrl;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        baseUrl = "http://localhost:" + environment.getProperty("local.server.port", "2000");
+        for (String endpoint : List.of("POST /api/auth/signup", "POST /api/auth/signin",
+                "GET /api/voitures/disponibles", "POST /api/reservations")) {
+            recorders.put(endpoint, new LatencyRecorder(endpoint));
+        }
+        voitureIds = seedVoitures((int) Math.max(voitureCount, Math.ceil(ratePerSecond * durationSeconds)));
+
+        Thread runner = new Thread(this::run, "loadtest-driver");
+        runner.setDaemon(false);
+        runner.start();
+    }
+
+    private void run() {
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long total = (long) (ratePerSecond * durationSeconds);
+        System.out.printf("🧪 Test de charge : %.1f sessions/s pendant %d s (%d sessions) sur %s%n",
+                ratePerSecond, durationSeconds, total, baseUrl);
+
+        long t0 = System.nanoTime();
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long scheduled = t0 + i * intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                sessions.submit(() -> session(scheduled));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+
+        report(seconds);
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private void session(long scheduledNanos) {
+        long n = sessionCounter.incrementAndGet();
+        String email = "load-" + n + "-" + System.nanoTime() + "@test.ma";
+        boolean blacklisted = ThreadLocalRandom.current().nextDouble() < blacklistedRate;
+
+        Map<String, Object> signup = new LinkedHashMap<>();
+        signup.put("fullName", "Client charge " + n);
+        signup.put("email", email);
+        signup.put("password", "secret");
+        signup.put("phone", "0600000000");
+        signup.put("role", "client");
+        signup.put("cin", (blacklisted ? "B" : "AB") + n);
+        if (send("POST /api/auth/signup", post("/api/auth/signup", signup), scheduledNanos) == null) {
+            return;
+        }
+
+        HttpResponse<String> signin = send("POST /api/auth/signin",
+                post("/api/auth/signin", Map.of("email", email, "password", "secret")), System.nanoTime());
+        if (signin == null) {
+            return;
+        }
+        long clientId = jsonMapper.readTree(signin.body()).get("id").asLong();
+
+        HttpResponse<String> catalogue = send("GET /api/voitures/disponibles",
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/voitures/disponibles")).GET().build(),
+                System.nanoTime());
+        if (catalogue == null) {
+            return;
+        }
+
+        // Une voiture par session : ni conflit de dates ni voiture déjà louée par une session précédente
+        int voitureId = voitureIds.get((int) (n - 1));
+        LocalDate debut = LocalDate.now().plusDays(1);
+        Map<String, Object> reservation = new LinkedHashMap<>();
+        reservation.put("clientId", clientId);
+        reservation.put("voitureId", voitureId);
+        reservation.put("startDate", debut.toString());
+        reservation.put("endDate", debut.plusDays(3).toString());
+        reservation.put("paymentMethod", "card");
+        send("POST /api/reservations", post("/api/reservations", reservation), System.nanoTime());
+    }
+
+    // Envoie la requête et enregistre sa latence ; renvoie null si erreur
+    private HttpResponse<String> send(String endpoint, HttpRequest request, long startNanos) {
+        LatencyRecorder recorder = recorders.get(endpoint);
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(response.statusCode() / 100 + "xx", (System.nanoTime() - startNanos) / 1000);
+            if (response.statusCode() >= 400) {
+                recorder.error("HTTP " + response.statusCode());
+                return null;
+            }
+            return response;
+        } catch (IOException e) {
+            recorder.record("io", (System.nanoTime() - startNanos) / 1000);
+            recorder.error(e.getClass().getSimpleName());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private List<Integer> seedVoitures(int count) {
+        List<Voiture> voitures = new ArrayList<>(count);
+        String[] marques = {"Dacia", "Renault", "Peugeot", "Toyota", "Hyundai"};
+        for (int i = 0; i < count; i++) {
+            Voiture v = new Voiture();
+            v.setLocateurId(1);
+            v.setAgenceNom("Agence " + (i % 10));
+            v.setMarque(marques[i % marques.length]);
+            v.setModele("Modèle " + i);
+            v.setPrixParJour(200 + (i % 20) * 25);
+            v.setDisponibilite(true);
+            v.setCarburant(i % 2 == 0 ? "Diesel" : "Essence");
+            voitures.add(v);
+        }
+        List<Integer> ids = new ArrayList<>(count);
+        for (Voiture v : voitureRepo.saveAll(voitures)) {
+            ids.add(v.getVoitureId());
+        }
+        return ids;
+    }
+
+    private void report(double seconds) {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        System.out.println("🧪 Rapport de charge (" + Math.round(seconds) + " s)");
+        System.out.printf("%-32s %6s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "classe", "req", "req/s", "p50 ms", "p99 ms", "p999 ms", "erreurs");
+        for (LatencyRecorder recorder : recorders.values()) {
+            Map<String, Object> s = recorder.summary(seconds);
+            endpoints.add(s);
+            System.out.printf("%-32s %6s %9s %9s %9s %9s %9s %8s%n", s.get("endpoint"), "tout", s.get("requests"),
+                    s.get("throughput_per_s"), "", "", "", s.get("errors"));
+            @SuppressWarnings("unchecked")
+            Map<String, Map<String, Object>> outcomes = (Map<String, Map<String, Object>>) s.get("by_outcome");
+            for (Map.Entry<String, Map<String, Object>> outcome : outcomes.entrySet()) {
+                Map<String, Object> o = outcome.getValue();
+                System.out.printf("%-32s %6s %9s %9s %9s %9s %9s %8s%n", "", outcome.getKey(), o.get("requests"),
+                        "", o.get("p50_ms"), o.get("p99_ms"), o.get("p999_ms"), "");
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rate_per_second", ratePerSecond);
+        report.put("duration_s", seconds);
+        report.put("endpoints", endpoints);
+        try {
+            Path path = Path.of(reportFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+            System.out.println("🧪 Rapport JSON : " + path.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("⚠️ Écriture du rapport impossible : " + e.getMessage());
+        }
+    }
+}
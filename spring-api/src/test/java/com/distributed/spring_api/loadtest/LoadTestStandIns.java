@@ -0,0 +1,86 @@
+package com.distributed.spring_api.loadtest;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+
+/**
+ * Profil loadtest : démarre dans le même processus la Banque et la Police
+ * (registres RMI locaux), à la place de PaymentServer.main / GovernmentServer.main.
+ * Les clients RMI résolvent leur stub au premier appel, donc après ce démarrage.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestStandIns {
+
+    @Value("${loadtest.payment.port:21099}")
+    private int paymentPort;
+
+    @Value("${loadtest.payment.latency-ms:20}")
+    private long paymentLatencyMs;
+
+    @Value("${loadtest.payment.jitter-ms:10}")
+    private long paymentJitterMs;
+
+    @Value("${loadtest.payment.failure-rate:0.0}")
+    private double paymentFailureRate;
+
+    @Value("${loadtest.police.port:21100}")
+    private int policePort;
+
+    @Value("${loadtest.police.latency-ms:15}")
+    private long policeLatencyMs;
+
+    @Value("${loadtest.police.jitter-ms:10}")
+    private long policeJitterMs;
+
+    @Value("${loadtest.police.failure-rate:0.0}")
+    private double policeFailureRate;
+
+    private Registry paymentRegistry;
+    private Registry policeRegistry;
+    private StandInPaymentServer paymentServer;
+    private StandInPoliceServer policeServer;
+
+    @PostConstruct
+    public void start() throws RemoteException {
+        paymentServer = new StandInPaymentServer(
+                new FaultInjection(paymentLatencyMs, paymentJitterMs, paymentFailureRate));
+        paymentRegistry = LocateRegistry.createRegistry(paymentPort);
+        paymentRegistry.rebind("PaymentService", paymentServer);
+
+        policeServer = new StandInPoliceServer(
+                new FaultInjection(policeLatencyMs, policeJitterMs, policeFailureRate));
+        policeRegistry = LocateRegistry.createRegistry(policePort);
+        policeRegistry.rebind("PoliceService", policeServer);
+
+        System.out.println("🧪 Banque et Police simulées sur les ports " + paymentPort + " / " + policePort);
+    }
+
+    @PreDestroy
+    public void stop() {
+        unexport(paymentServer);
+        unexport(policeServer);
+        unexport(paymentRegistry);
+        unexport(policeRegistry);
+    }
+
+    private void unexport(java.rmi.Remote remote) {
+        if (remote == null) {
+            return;
+        }
+        try {
+            UnicastRemoteObject.unexportObject(remote, true);
+        } catch (NoSuchObjectException e) {
+            // déjà arrêté
+        }
+    }
+}
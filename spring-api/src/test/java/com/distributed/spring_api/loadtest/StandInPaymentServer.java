@@ -0,0 +1,41 @@
+package com.distributed.spring_api.loadtest;
+
+import com.distributed.spring_api.rmi.IPaymentServiceRemote;
+import com.distributed.spring_api.rmi.PaymentRequest;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
+
+// Banque de substitution (même règle que PaymentServer, sans traces console)
+public class StandInPaymentServer extends UnicastRemoteObject implements IPaymentServiceRemote {
+
+    private final FaultInjection faults;
+
+    public StandInPaymentServer(FaultInjection faults) throws RemoteException {
+        super();
+        this.faults = faults;
+    }
+
+    @Override
+    public boolean processPayment(String cardNumber, double amount) throws RemoteException {
+        faults.apply("Banque");
+        return amount < 50000;
+    }
+
+    @Override
+    public boolean processPayment(String transactionId, String cardNumber, double amount) throws RemoteException {
+        return processPayment(cardNumber, amount);
+    }
+
+    @Override
+    public boolean[] processPayments(List<PaymentRequest> payments) throws RemoteException {
+        // Un lot = un aller-retour : la latence n'est appliquée qu'une fois
+        faults.apply("Banque");
+        boolean[] results = new boolean[payments.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = payments.get(i).getAmount() < 50000;
+        }
+        return results;
+    }
+}
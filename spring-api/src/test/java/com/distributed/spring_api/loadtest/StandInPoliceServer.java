@@ -0,0 +1,23 @@
+package com.distributed.spring_api.loadtest;
+
+import com.distributed.spring_api.rmi.IVerificationServiceRemote;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+
+// Police de substitution (même règle que GovernmentServer, sans traces console)
+public class StandInPoliceServer extends UnicastRemoteObject implements IVerificationServiceRemote {
+
+    private final FaultInjection faults;
+
+    public StandInPoliceServer(FaultInjection faults) throws RemoteException {
+        super();
+        this.faults = faults;
+    }
+
+    @Override
+    public boolean verifierCitoyen(String cin, String permis) throws RemoteException {
+        faults.apply("Police");
+        return !cin.startsWith("B");
+    }
+}
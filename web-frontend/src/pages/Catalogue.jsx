@@ -34,25 +34,54 @@ export default function Catalogue() {
 
   const [selectedCar, setSelectedCar] = useState(null);
 
+  // Curseur de la page suivante (null = dernière page atteinte)
+  const [next, setNext] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
   // 🔹 Fetch cars from Spring Boot
+  // L'API est paginée par curseur : une page au montage, les suivantes à la demande
+  const fetchPage = useCallback((after) => {
+    const url = after
+      ? `http://localhost:2000/api/voitures/disponibles?after=${after}`
+      : "http://localhost:2000/api/voitures/disponibles";
+    return fetch(url).then((res) => {
+      if (!res.ok) {
+        throw new Error("Failed to fetch cars");
+      }
+      return res.json();
+    });
+  }, []);
+
   useEffect(() => {
-    fetch("http://localhost:2000/api/voitures/disponibles")
-      .then((res) => {
-        if (!res.ok) {
-          throw new Error("Failed to fetch cars");
-        }
-        return res.json();
-      })
-      .then((data) => {
-        setCars(data);
-        setLoading(false);
-        console.log("données voitures chargées:", data);
+    let cancelled = false;
+
+    fetchPage(null)
+      .then((page) => {
+        if (cancelled) return;
+        setCars(page.items);
+        setNext(page.next);
       })
-      .catch((err) => {
-        console.error(err);
-        setLoading(false);
+      .catch((err) => console.error(err))
+      .finally(() => {
+        if (!cancelled) setLoading(false);
       });
-  }, []);
+
+    return () => {
+      cancelled = true;
+    };
+  }, [fetchPage]);
+
+  const loadMore = useCallback(() => {
+    if (!next || loadingMore) return;
+    setLoadingMore(true);
+    fetchPage(next)
+      .then((page) => {
+        setCars((prev) => [...prev, ...page.items]);
+        setNext(page.next);
+      })
+      .catch((err) => console.error(err))
+      .finally(() => setLoadingMore(false));
+  }, [fetchPage, next, loadingMore]);
 
   const handleFilter = useCallback((filterObj) => {
     setFilter((prev) => ({
@@ -175,6 +204,19 @@ export default function Catalogue() {
           </div>
         )}
 
+        {next && (
+          <div className="text-center mt-8">
+            <button
+              type="button"
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-6 py-3 rounded-xl font-semibold bg-purple-600 text-white hover:bg-purple-700 disabled:opacity-60 transition-colors duration-150"
+            >
+              {loadingMore ? "Chargement..." : "Voir plus de véhicules"}
+            </button>
+          </div>
+        )}
+
         <AnimatePresence>
           {selectedCar && (
             <Suspense fallback={null}>
@@ -1,4 +1,4 @@
-import { useState, useEffect } from "react";
+import { useState, useEffect, useCallback } from "react";
 import { motion, AnimatePresence } from "framer-motion";
 import { 
   Calendar, CheckCircle2, XCircle, AlertCircle, Eye, X, 
@@ -199,6 +199,23 @@ export default function MyBookings() {
   const [bookings, setBookings] = useState([]);
   const [isLoading, setIsLoading] = useState(true);
 
+  // Curseur de la page suivante de l'historique (null = plus rien à charger)
+  const [next, setNext] = useState(null);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
+
+  // L'historique est paginé par curseur (du plus récent au plus ancien) : une page à la fois
+  const fetchPage = useCallback(async (before) => {
+    const currentUser = JSON.parse(localStorage.getItem("carrent_current_user"));
+    const url = before
+      ? `http://localhost:2000/api/reservations/client/${currentUser.id}?before=${before}`
+      : `http://localhost:2000/api/reservations/client/${currentUser.id}`;
+    const response = await fetch(url);
+    if (!response.ok) {
+      throw new Error("Erreur chargement réservations");
+    }
+    return response.json();
+  }, []);
+
   // CHARGEMENT DES DONNÉES DEPUIS SPRING BOOT
   useEffect(() => {
     const fetchBookings = async () => {
@@ -210,15 +227,9 @@ export default function MyBookings() {
       }
 
       try {
-        const response = await fetch(`http://localhost:2000/api/reservations/client/${currentUser.id}`);
-        if (response.ok) {
-          const data = await response.json();
-          // Trier par date décroissante (plus récent en premier)
-          const sortedData = data.sort((a, b) => new Date(b.created_at) - new Date(a.created_at));
-          setBookings(sortedData);
-        } else {
-          console.error("Erreur chargement réservations");
-        }
+        const page = await fetchPage(null);
+        setBookings(page.items);
+        setNext(page.next);
       } catch (error) {
         console.error("Erreur serveur:", error);
         toast.error("Impossible de charger vos réservations");
@@ -228,7 +239,23 @@ export default function MyBookings() {
     };
 
     fetchBookings();
-  }, [navigate]);
+  }, [navigate, fetchPage]);
+
+  // Page suivante à la demande (bouton en bas de la liste)
+  const loadMore = async () => {
+    if (!next || isLoadingMore) return;
+    setIsLoadingMore(true);
+    try {
+      const page = await fetchPage(next);
+      setBookings((prev) => [...prev, ...page.items]);
+      setNext(page.next);
+    } catch (error) {
+      console.error("Erreur serveur:", error);
+      toast.error("Impossible de charger la suite de l'historique");
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
 
   const filteredBookings = filter === "ALL" 
     ? bookings 
@@ -341,6 +368,18 @@ export default function MyBookings() {
               <EmptyState onExplore={() => navigate("/catalogue")} />
             )}
           </AnimatePresence>
+
+          {next && (
+            <div className="text-center mt-8">
+              <button
+                onClick={loadMore}
+                disabled={isLoadingMore}
+                className="px-6 py-3 bg-indigo-600 text-white rounded-lg hover:bg-indigo-700 disabled:opacity-60"
+              >
+                {isLoadingMore ? "Chargement..." : "Afficher les réservations plus anciennes"}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
@@ -1,4 +1,4 @@
-import { useState, useEffect } from "react";
+import { useState, useEffect, useRef } from "react";
 import { useParams, useNavigate } from "react-router-dom";
 import { motion } from "framer-motion";
 import { 
@@ -6,7 +6,7 @@ import {
   CheckCircle2, User, Mail, Shield,
   ChevronRight, Lock, Receipt,
   Navigation, Wifi, Baby, Package,
-  Wallet, Smartphone, Home, Tag, ChevronDown
+  Wallet, Smartphone, Home, Tag, ChevronDown, XCircle
 } from "lucide-react";
 import { PhoneInput } from "react-international-phone";
 import "react-international-phone/style.css";
@@ -328,6 +328,10 @@ const StepContent = ({ step, formData, onFormChange, onToggleExtra, days, subTot
   }
 };
 
+// Suivi du paiement après le 202 : toutes les 2 s pendant 1 min au plus
+const PAYMENT_POLL_INTERVAL_MS = 2000;
+const PAYMENT_POLL_ATTEMPTS = 30;
+
 // --- PAGE PRINCIPALE ---
 export default function ReservationPage() {
   const { carId } = useParams();
@@ -348,6 +352,9 @@ export default function ReservationPage() {
     extras: []
   });
   const [isSubmitting, setIsSubmitting] = useState(false);
+  const [isPaymentPending, setIsPaymentPending] = useState(false);
+  // Même clé pour toutes les tentatives de cette réservation : un renvoi ne réserve (et ne débite) qu'une fois
+  const idempotencyKey = useRef(crypto.randomUUID());
   const [step, setStep] = useState(1);
 
   // 1. Charger les infos de la voiture depuis Spring Boot
@@ -430,21 +437,53 @@ export default function ReservationPage() {
 
         const response = await fetch("http://localhost:2000/api/reservations", {
             method: "POST",
-            headers: { "Content-Type": "application/json" },
+            headers: {
+              "Content-Type": "application/json",
+              "Idempotency-Key": idempotencyKey.current
+            },
             body: JSON.stringify(payload)
         });
 
         if (response.ok) {
-            toast.success(
-              <div className="flex items-center gap-3">
-                <CheckCircle2 className="w-6 h-6 text-emerald-600" />
-                <div>
-                  <p className="font-semibold">Réservation confirmée !</p>
-                  <p className="text-sm opacity-90">Un email de confirmation a été envoyé.</p>
-                </div>
-              </div>,
-              { duration: 4000 }
-            );
+            // 202 : réservation PENDING, la banque répond plus tard (outbox) -> on suit le statut
+            let reservation = await response.json();
+            if (response.status === 202 || reservation.status === "PENDING") {
+                setIsPaymentPending(true);
+                const statusUrl = new URL(
+                    response.headers.get("Location") || `/api/reservations/${reservation.id}`,
+                    "http://localhost:2000"
+                );
+                reservation = await waitForPayment(statusUrl);
+            }
+
+            if (reservation.status === "CONFIRMED") {
+                toast.success(
+                  <div className="flex items-center gap-3">
+                    <CheckCircle2 className="w-6 h-6 text-emerald-600" />
+                    <div>
+                      <p className="font-semibold">Réservation confirmée !</p>
+                      <p className="text-sm opacity-90">Un email de confirmation a été envoyé.</p>
+                    </div>
+                  </div>,
+                  { duration: 4000 }
+                );
+            } else if (reservation.status === "CANCELLED") {
+                toast.error(
+                  <div className="flex items-center gap-3">
+                    <XCircle className="w-6 h-6 text-red-600" />
+                    <div>
+                      <p className="font-semibold">Paiement refusé</p>
+                      <p className="text-sm opacity-90">La réservation a été annulée, aucun montant n'a été débité.</p>
+                    </div>
+                  </div>,
+                  { duration: 5000 }
+                );
+                // Nouvelle tentative = nouvelle réservation : l'ancienne clé rejouerait la réservation annulée
+                idempotencyKey.current = crypto.randomUUID();
+                return;
+            } else {
+                toast("Paiement toujours en cours : suivez son statut dans Mes réservations.", { duration: 5000 });
+            }
             setTimeout(() => {
                 navigate("/bookings"); // Assurez-vous d'avoir une page pour lister les réservations
             }, 1500);
@@ -458,7 +497,28 @@ export default function ReservationPage() {
         toast.error("Impossible de contacter le serveur");
     } finally {
         setIsSubmitting(false);
+        setIsPaymentPending(false);
+    }
+  };
+
+  // Interroge GET /api/reservations/{id} jusqu'à CONFIRMED ou CANCELLED (sinon renvoie le dernier statut PENDING)
+  const waitForPayment = async (statusUrl) => {
+    let reservation = { status: "PENDING" };
+    for (let attempt = 0; attempt < PAYMENT_POLL_ATTEMPTS; attempt++) {
+      await new Promise(resolve => setTimeout(resolve, PAYMENT_POLL_INTERVAL_MS));
+      try {
+        const response = await fetch(statusUrl);
+        if (response.ok) {
+          reservation = await response.json();
+          if (reservation.status !== "PENDING") {
+            return reservation;
+          }
+        }
+      } catch (err) {
+        console.error("Suivi du paiement:", err);
+      }
     }
+    return reservation;
   };
 
   const handleFormChange = (e) => {
@@ -564,7 +624,7 @@ export default function ReservationPage() {
                   whileTap={!isSubmitting ? { scale: 0.99 } : {}} 
                   className={`flex-1 py-3 px-6 rounded-lg font-semibold text-white transition-all flex items-center justify-center gap-2 ${isSubmitting ? 'bg-indigo-500 cursor-wait' : 'bg-indigo-600 hover:bg-indigo-700'} disabled:opacity-50`}
                 >
-                  {isSubmitting ? <><div className="w-5 h-5 border-2 border-white border-t-transparent rounded-full animate-spin" /> Traitement...</> : step < 3 ? <>Continuer <ChevronRight className="w-4 h-4" /></> : <><Lock className="w-4 h-4" /> Payer & Réserver</>}
+                  {isSubmitting ? <><div className="w-5 h-5 border-2 border-white border-t-transparent rounded-full animate-spin" /> {isPaymentPending ? "Paiement en cours..." : "Traitement..."}</> : step < 3 ? <>Continuer <ChevronRight className="w-4 h-4" /></> : <><Lock className="w-4 h-4" /> Payer & Réserver</>}
                 </motion.button>
               </div>
             </div>